@@ -0,0 +1,68 @@
+package com.bookstore.benchmark;
+
+import com.bookstore.dto.AuthorResponseDTO;
+import com.bookstore.mapper.AuthorMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Author Listing Benchmark
+ *
+ * One page of 20 authors as GET /api/authors/paginated returns it: the listing read model
+ * (book count and first books from one batched query) against mapping the Author entities,
+ * which loads every author's books collection (one query each without the second-level cache,
+ * -p secondLevelCache=false). The JSON size of both pages is printed once in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorListingBenchmark {
+
+    private static final Pageable PAGE = PageRequest.of(1, 20, Sort.by("name"));
+
+    private AuthorMapper authorMapper;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp(CatalogState catalog) throws JsonProcessingException {
+        authorMapper = catalog.context.getBean(AuthorMapper.class);
+        readOnly = new TransactionTemplate(catalog.context.getBean(TransactionTemplate.class).getTransactionManager());
+        readOnly.setReadOnly(true);
+        ObjectMapper objectMapper = catalog.context.getBean(ObjectMapper.class);
+        System.out.println();
+        System.out.println("listing page: " + objectMapper.writeValueAsBytes(listing(catalog).getContent()).length
+                + " bytes, entity page: " + objectMapper.writeValueAsBytes(entityMapping(catalog).getContent()).length
+                + " bytes");
+    }
+
+    @Benchmark
+    public Page<AuthorResponseDTO> listing(CatalogState catalog) {
+        return catalog.authorService.getAuthorListing(PAGE);
+    }
+
+    // The books collections load lazily during mapping (open session in view in the application)
+    @Benchmark
+    public Page<AuthorResponseDTO> entityMapping(CatalogState catalog) {
+        return readOnly.execute(status -> catalog.authorService.getAllAuthors(PAGE).map(authorMapper::toResponseDTO));
+    }
+}
@@ -0,0 +1,42 @@
+package com.bookstore.benchmark;
+
+import com.bookstore.entity.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Book Paging Benchmark
+ * 
+ * Measures BookService.getAllBooks(Pageable) on the first and the last page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookPagingBenchmark {
+    
+    @Benchmark
+    public Page<Book> getAllBooksFirstPage(CatalogState catalog) {
+        return catalog.bookService.getAllBooks(PageRequest.of(0, 20, Sort.by("id")));
+    }
+    
+    @Benchmark
+    public Page<Book> getAllBooksDeepPage(CatalogState catalog) {
+        int lastPage = catalog.catalogSize / 20 - 1;
+        return catalog.bookService.getAllBooks(PageRequest.of(lastPage, 20, Sort.by("id")));
+    }
+}
@@ -0,0 +1,108 @@
+package com.bookstore.benchmark;
+
+import com.bookstore.BookstoreApplication;
+import com.bookstore.dto.BookRequestDTO;
+import com.bookstore.entity.Author;
+import com.bookstore.service.AuthorService;
+import com.bookstore.service.BookService;
+import com.bookstore.service.ReactiveBookService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Catalog State
+ * 
+ * Boots the JPA and R2DBC layers (no web server) against the embedded H2 database
+ * and seeds a catalog of catalogSize books, once per benchmark trial.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+    
+    static final int GENRES = 20;
+    static final int PUBLISHERS = 50;
+    
+    @Param("10000")
+    public int catalogSize;
+    
+    @Param("100")
+    public int authorCount;
+    
+    // Hibernate second-level and query cache (-p secondLevelCache=true,false to compare)
+    @Param("true")
+    public boolean secondLevelCache;
+    
+    // Columnar in-memory filter engine (-p columnarFilter=true,false to compare)
+    @Param("false")
+    public boolean columnarFilter;
+    
+    // Change feed outbox and relay (-p changeFeed=true,false to compare)
+    @Param("true")
+    public boolean changeFeed;
+    
+    ConfigurableApplicationContext context;
+    BookService bookService;
+    AuthorService authorService;
+    ReactiveBookService reactiveBookService;
+    
+    @Setup(Level.Trial)
+    public void boot() {
+        context = new SpringApplicationBuilder(BookstoreApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command line arguments, so they override application.properties
+                .run("--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:bookstore;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                        "--bookstore.filter.columnar.enabled=" + columnarFilter,
+                        "--bookstore.changes.enabled=" + changeFeed,
+                        "--logging.level.root=WARN");
+        bookService = context.getBean(BookService.class);
+        authorService = context.getBean(AuthorService.class);
+        reactiveBookService = context.getBean(ReactiveBookService.class);
+        seed();
+    }
+    
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        context.close();
+    }
+    
+    // Helper: Insert authorCount authors and catalogSize books spread over genres, publishers and prices
+    private void seed() {
+        List<Long> authorIds = new ArrayList<>();
+        for (int i = 0; i < authorCount; i++) {
+            Author author = new Author();
+            author.setName("Author " + i);
+            author.setEmail("author" + i + "@bookstore.com");
+            authorIds.add(authorService.saveAuthor(author).getId());
+        }
+        
+        bookService.bulkCreateBooks(IntStream.range(0, catalogSize)
+                .mapToObj(i -> {
+                    BookRequestDTO dto = new BookRequestDTO();
+                    dto.setTitle((i % 7 == 0 ? "Java " : "Book ") + i);
+                    dto.setIsbn("isbn-" + i);
+                    dto.setDescription("Description of book " + i);
+                    dto.setPrice(BigDecimal.valueOf(100 + (i * 37L) % 900, 0));
+                    dto.setQuantity(i % 50);
+                    dto.setGenre("Genre " + (i % GENRES));
+                    dto.setPublisher("Publisher " + (i % PUBLISHERS));
+                    dto.setAuthorId(authorIds.get(i % authorIds.size()));
+                    return dto;
+                })
+                .iterator());
+    }
+}
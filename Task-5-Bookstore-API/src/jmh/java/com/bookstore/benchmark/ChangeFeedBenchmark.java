@@ -0,0 +1,103 @@
+package com.bookstore.benchmark;
+
+import com.bookstore.dto.BookRequestDTO;
+import com.bookstore.dto.CatalogChangeDTO;
+import com.bookstore.repository.CatalogChangeRepository;
+import com.bookstore.service.CatalogChangeFeed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Change Feed Benchmark
+ *
+ * Events per second through the change feed:
+ * "publish" bulk-creates 1000 books and waits until the relay has made all 1000 changes
+ * visible to subscribers (commit to head); with -p changeFeed=false it only measures the
+ * writes, which shows the cost of the outbox rows.
+ * "readRecent" and "readBacklog" read a page of 500 changes as a subscriber does, from the
+ * in-memory buffer of recent changes and from the catalog_changes table (catching up);
+ * they need the feed enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChangeFeedBenchmark {
+
+    private static final int BOOKS_PER_OP = 1000;
+    private static final int PAGE = 500;
+
+    private CatalogChangeFeed feed;
+    private CatalogChangeRepository repository;
+    private long nextIsbn;
+
+    @Setup
+    public void setUp(CatalogState catalog) {
+        feed = catalog.context.getBean(CatalogChangeFeed.class);
+        repository = catalog.context.getBean(CatalogChangeRepository.class);
+        nextIsbn = catalog.catalogSize;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKS_PER_OP)
+    public long publish(CatalogState catalog) throws InterruptedException {
+        long first = nextIsbn;
+        nextIsbn += BOOKS_PER_OP;
+        catalog.bookService.bulkCreateBooks(IntStream.range(0, BOOKS_PER_OP)
+                .mapToObj(i -> book(first + i))
+                .iterator());
+        if (!feed.isEnabled()) {
+            return first;
+        }
+        long last = repository.findMaxOffset().orElseThrow();
+        while (feed.getHead() < last) {
+            Thread.sleep(0, 100_000);
+        }
+        return last;
+    }
+
+    // Pages start at varying offsets, so H2 cannot answer from its result cache
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public List<CatalogChangeDTO> readRecent() {
+        long head = feed.getHead();
+        return feed.getChanges(head - PAGE - ThreadLocalRandom.current().nextInt(PAGE), PAGE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public List<CatalogChangeDTO> readBacklog() {
+        long head = feed.getHead();
+        return repository.findAfter(ThreadLocalRandom.current().nextLong(head - PAGE), head, PAGE);
+    }
+
+    // Helper: Request for a new book with a unique ISBN
+    private static BookRequestDTO book(long n) {
+        BookRequestDTO dto = new BookRequestDTO();
+        dto.setTitle("Feed Book " + n);
+        dto.setIsbn("isbn-" + n);
+        dto.setPrice(BigDecimal.valueOf(100 + n % 900, 0));
+        dto.setQuantity(10);
+        dto.setGenre("Genre " + n % CatalogState.GENRES);
+        dto.setPublisher("Publisher " + n % CatalogState.PUBLISHERS);
+        dto.setAuthorId(1L);
+        return dto;
+    }
+}
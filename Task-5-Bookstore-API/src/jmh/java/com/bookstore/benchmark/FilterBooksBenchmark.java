@@ -0,0 +1,71 @@
+package com.bookstore.benchmark;
+
+import com.bookstore.dto.FilterConsistencyDTO;
+import com.bookstore.entity.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter Books Benchmark
+ * 
+ * Measures BookService.filterBooks with different predicate combinations,
+ * in the database or in the columnar filter index (-p columnarFilter=true,false).
+ * With the index, setup first checks that it matches the same books as the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBooksBenchmark {
+    
+    private static final BigDecimal MIN_PRICE = new BigDecimal("300");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("600");
+    
+    @Param({"genre", "price", "genre+price", "title", "author", "all"})
+    public String filter;
+    
+    private String title;
+    private String genre;
+    private String authorName;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    
+    @Setup
+    public void setUp(CatalogState catalog) {
+        boolean all = filter.equals("all");
+        title = all || filter.equals("title") ? "java" : null;
+        genre = all || filter.contains("genre") ? "Genre 3" : null;
+        authorName = all || filter.equals("author") ? "author 1" : null;
+        minPrice = all || filter.contains("price") ? MIN_PRICE : null;
+        maxPrice = all || filter.contains("price") ? MAX_PRICE : null;
+        if (catalog.columnarFilter) {
+            FilterConsistencyDTO check = catalog.bookService.checkFilterIndex(title, genre, authorName, minPrice, maxPrice);
+            if (!check.isConsistent()) {
+                throw new IllegalStateException("Filter index differs from the database: " + check);
+            }
+        }
+    }
+    
+    @Benchmark
+    public Page<Book> filterBooks(CatalogState catalog) {
+        return catalog.bookService.filterBooks(title, genre, authorName, minPrice, maxPrice,
+                PageRequest.of(0, 20, Sort.by("price").ascending()));
+    }
+}
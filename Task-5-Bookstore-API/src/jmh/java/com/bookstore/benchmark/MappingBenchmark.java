@@ -0,0 +1,105 @@
+package com.bookstore.benchmark;
+
+import com.bookstore.dto.AuthorResponseDTO;
+import com.bookstore.dto.BookResponseDTO;
+import com.bookstore.entity.Author;
+import com.bookstore.entity.Book;
+import com.bookstore.mapper.AuthorMapper;
+import com.bookstore.mapper.BookMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Mapping Benchmark
+ * 
+ * Measures the in-memory hot paths of every response: entity to DTO
+ * mapping and Jackson serialization of a page of BookResponseDTOs.
+ * No database involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    
+    @Param({"20", "100"})
+    public int pageSize;
+    
+    private final BookMapper bookMapper = new BookMapper();
+    private final AuthorMapper authorMapper = new AuthorMapper();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    
+    private Book book;
+    private Author author;
+    private Page<BookResponseDTO> page;
+    
+    @Setup
+    public void setUp() {
+        author = new Author();
+        author.setId(1L);
+        author.setName("Joshua Bloch");
+        author.setEmail("joshua@bookstore.com");
+        author.setBiography("Author of Effective Java");
+        
+        List<Book> books = IntStream.range(0, pageSize)
+                .mapToObj(this::book)
+                .collect(Collectors.toList());
+        books.forEach(author::addBook);
+        book = books.get(0);
+        
+        page = new PageImpl<>(books.stream().map(bookMapper::toResponseDTO).collect(Collectors.toList()),
+                PageRequest.of(0, pageSize), 10_000);
+    }
+    
+    @Benchmark
+    public BookResponseDTO bookToResponseDTO() {
+        return bookMapper.toResponseDTO(book);
+    }
+    
+    // Author with pageSize books in its collection
+    @Benchmark
+    public AuthorResponseDTO authorToResponseDTO() {
+        return authorMapper.toResponseDTO(author);
+    }
+    
+    @Benchmark
+    public byte[] serializeBookPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+    
+    // Helper: A fully populated book
+    private Book book(int i) {
+        Book book = new Book("Effective Java, Edition " + i, "978-01346859" + i, new BigDecimal("499.99"));
+        book.setId((long) i);
+        book.setDescription("The definitive guide to Java platform best practices");
+        book.setQuantity(10);
+        book.setPublishedDate(LocalDate.of(2018, 1, 6));
+        book.setGenre("Programming");
+        book.setPublisher("Addison-Wesley");
+        return book;
+    }
+}
@@ -0,0 +1,123 @@
+package com.bookstore.benchmark;
+
+import com.bookstore.dto.BookResponseDTO;
+import com.bookstore.entity.Book;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reactive Read Benchmark
+ *
+ * Reads `concurrency` books by id with the same number of lookups in flight on both stacks:
+ * JPA runs them on `concurrency` threads (one thread and one JDBC connection per query in flight),
+ * R2DBC keeps them in flight from the calling thread (bounded by bookstore.r2dbc.pool.max-size).
+ * After every iteration the peak active connections of each pool and the peak live threads are
+ * printed, which is what the reactive stack saves. Run with -t N to add calling threads,
+ * e.g. -Djmh.args="ReactiveRead -t 16".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReactiveReadBenchmark {
+
+    @Param({"1", "16", "64"})
+    public int concurrency;
+
+    private ExecutorService jpaThreads;
+    private ScheduledExecutorService sampler;
+    private HikariPoolMXBean jdbcPool;
+    private Optional<PoolMetrics> r2dbcPool;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final AtomicInteger peakJdbcConnections = new AtomicInteger();
+    private final AtomicInteger peakR2dbcConnections = new AtomicInteger();
+
+    @Setup
+    public void setUp(CatalogState catalog) throws Exception {
+        jpaThreads = Executors.newFixedThreadPool(concurrency);
+        jdbcPool = catalog.context.getBean(DataSource.class).unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        r2dbcPool = ((ConnectionPool) catalog.context.getBean(DatabaseClient.class).getConnectionFactory()).getMetrics();
+        // Sample the pools while the benchmark runs (the sampler adds one thread to both stacks)
+        sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            peakJdbcConnections.accumulateAndGet(jdbcPool.getActiveConnections(), Math::max);
+            r2dbcPool.ifPresent(metrics -> peakR2dbcConnections.accumulateAndGet(metrics.acquiredSize(), Math::max));
+        }, 0, 1, TimeUnit.MILLISECONDS);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeaks() {
+        peakJdbcConnections.set(0);
+        peakR2dbcConnections.set(0);
+        threads.resetPeakThreadCount();
+    }
+
+    @Benchmark
+    public List<Book> jpaById(CatalogState catalog) {
+        List<CompletableFuture<Optional<Book>>> lookups = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            long id = idOf(catalog, i);
+            lookups.add(CompletableFuture.supplyAsync(() -> catalog.bookService.getBookById(id), jpaThreads));
+        }
+        List<Book> books = new ArrayList<>(concurrency);
+        lookups.forEach(lookup -> lookup.join().ifPresent(books::add));
+        return books;
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> r2dbcById(CatalogState catalog) {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> catalog.reactiveBookService.getBookById(idOf(catalog, i)), concurrency)
+                .collectList()
+                .block();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%npeak active connections: JDBC %d, R2DBC %d; peak live threads %d%n",
+                peakJdbcConnections.get(), peakR2dbcConnections.get(), threads.getPeakThreadCount());
+    }
+
+    @TearDown
+    public void tearDown() {
+        sampler.shutdownNow();
+        jpaThreads.shutdownNow();
+    }
+
+    // Helper: Spread reads over the catalog (ids start at 1)
+    private long idOf(CatalogState catalog, int i) {
+        return 1 + (i * 7919L) % catalog.catalogSize;
+    }
+}
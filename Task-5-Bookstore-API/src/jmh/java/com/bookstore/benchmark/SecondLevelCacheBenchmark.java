@@ -0,0 +1,111 @@
+package com.bookstore.benchmark;
+
+import com.bookstore.entity.Author;
+import com.bookstore.entity.Book;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Second Level Cache Benchmark
+ *
+ * Mixed read/write load on the JPA layer, run with and without the Hibernate
+ * second-level and query cache (-p secondLevelCache=true,false).
+ * Each operation is, by writePercent, a book update through saveBook (which looks up
+ * the author) or a read: a book by id, an author with its books, or books by publisher.
+ * After every iteration the SQL statements and cache hit ratio per operation are printed
+ * from Hibernate Statistics, which is the database load the cache saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    @Param("10")
+    public int writePercent;
+
+    private List<Long> bookIds;
+    private List<Long> authorIds;
+    private Statistics statistics;
+    private final LongAdder operations = new LongAdder();
+
+    @Setup
+    public void setUp(CatalogState catalog) {
+        bookIds = catalog.bookService.getAllBooks().stream().map(Book::getId).toList();
+        authorIds = catalog.authorService.getAllAuthors().stream().map(Author::getId).toList();
+        statistics = catalog.context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        operations.reset();
+    }
+
+    @Benchmark
+    public Object mixed(CatalogState catalog) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        operations.increment();
+        if (roll < writePercent) {
+            return updateBook(catalog, random);
+        }
+        return switch (roll % 4) {
+            case 0, 1 -> catalog.bookService.getBookById(pick(bookIds, random));
+            case 2 -> catalog.authorService.getAuthorResponseById(pick(authorIds, random));
+            default -> catalog.bookService.getBooksByPublisher("Publisher " + random.nextInt(CatalogState.PUBLISHERS));
+        };
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        double ops = Math.max(1, operations.sum());
+        long hits = statistics.getSecondLevelCacheHitCount() + statistics.getQueryCacheHitCount();
+        long requests = hits + statistics.getSecondLevelCacheMissCount() + statistics.getQueryCacheMissCount();
+        System.out.printf("%n%.2f SQL statements/op, %.2f entity loads/op, cache hit ratio %.1f%%%n",
+                statistics.getPrepareStatementCount() / ops,
+                statistics.getEntityLoadCount() / ops,
+                requests == 0 ? 0.0 : 100.0 * hits / requests);
+    }
+
+    // Helper: Change the price of a random book, keeping its author
+    private Book updateBook(CatalogState catalog, ThreadLocalRandom random) {
+        Book book = catalog.bookService.getBookById(pick(bookIds, random)).orElseThrow();
+        book.setPrice(BigDecimal.valueOf(100 + random.nextInt(900)));
+        try {
+            return catalog.bookService.saveBook(book, book.getAuthor().getId());
+        } catch (OptimisticLockingFailureException e) {
+            // Another thread updated the same book in between
+            return book;
+        }
+    }
+
+    private static Long pick(List<Long> ids, ThreadLocalRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.bookstore.benchmark;
+
+import com.bookstore.dto.AuthorResponseDTO;
+import com.bookstore.dto.BookResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization Format Benchmark
+ *
+ * Encodes and decodes the two largest response shapes in every wire format the API
+ * negotiates: a page of BookResponseDTOs and an author listing with nested books.
+ * "json+gzip" adds what server.compression costs (and saves) on top of JSON.
+ * Payload sizes per format are printed once in setup. No database involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationFormatBenchmark {
+
+    @Param({"json", "json+gzip", "cbor", "smile"})
+    public String format;
+
+    @Param({"books-20", "books-100", "authors-50"})
+    public String payload;
+
+    private ObjectMapper objectMapper;
+    private boolean gzip;
+    private Object value;
+    private Class<?> type;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> Jackson2ObjectMapperBuilder.json();
+        };
+        objectMapper = builder.build();
+        gzip = format.endsWith("+gzip");
+
+        if (payload.startsWith("authors-")) {
+            int authors = Integer.parseInt(payload.substring("authors-".length()));
+            value = IntStream.range(0, authors).mapToObj(this::author).collect(Collectors.toList());
+            type = AuthorResponseDTO[].class;
+        } else {
+            int pageSize = Integer.parseInt(payload.substring("books-".length()));
+            List<BookResponseDTO> books = IntStream.range(0, pageSize).mapToObj(this::book).collect(Collectors.toList());
+            value = new PageImpl<>(books, PageRequest.of(0, pageSize), 10_000);
+            type = BookPage.class;
+        }
+        encoded = encode();
+        System.out.println();
+        System.out.println(format + " " + payload + ": " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            objectMapper.writeValue(out, value);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        try (InputStream in = gzip
+                ? new GZIPInputStream(new ByteArrayInputStream(encoded))
+                : new ByteArrayInputStream(encoded)) {
+            return objectMapper.readValue(in, type);
+        }
+    }
+
+    // Helper: A fully populated book response
+    private BookResponseDTO book(int i) {
+        return new BookResponseDTO((long) i, 0L, "Effective Java, Edition " + i, "978-01346859" + i,
+                "The definitive guide to Java platform best practices", new BigDecimal("499.99"), 10,
+                LocalDate.of(2018, 1, 6), "Programming", "Addison-Wesley",
+                new BookResponseDTO.AuthorDTO(1L, 0L, "Joshua Bloch", "joshua@bookstore.com"));
+    }
+
+    // Helper: An author response with 20 books
+    private AuthorResponseDTO author(int i) {
+        List<AuthorResponseDTO.BookDTO> books = IntStream.range(0, 20)
+                .mapToObj(b -> new AuthorResponseDTO.BookDTO((long) (i * 20 + b), 0L, "Book " + b + " by Author " + i,
+                        "isbn-" + i + "-" + b))
+                .collect(Collectors.toList());
+        return new AuthorResponseDTO((long) i, 0L, "Author " + i, "Writes about software, " + i,
+                "author" + i + "@bookstore.com", books.size(), books);
+    }
+
+    // Page shape as a client binds it (paging metadata ignored)
+    public static class BookPage {
+        public List<BookResponseDTO> content;
+    }
+}
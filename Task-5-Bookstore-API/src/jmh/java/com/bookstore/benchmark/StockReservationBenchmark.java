@@ -0,0 +1,84 @@
+package com.bookstore.benchmark;
+
+import com.bookstore.entity.Book;
+import com.bookstore.service.StripedStockCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stock Reservation Benchmark
+ *
+ * 16 threads reserve one unit at a time of the same (hot) book:
+ * "database" runs one conditional UPDATE per reservation,
+ * "striped" goes through StripedStockCounter (one UPDATE per lease).
+ * After every iteration the stock is checked: no oversell, no lost units.
+ * Use a small stock (e.g. -p stock=1000) to also sell the book out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class StockReservationBenchmark {
+
+    private static final Long HOT_BOOK_ID = 1L;
+    private static final int LEASE_SIZE = 50;
+    private static final int STRIPES = 16;
+
+    @Param({"database", "striped"})
+    public String mode;
+
+    @Param("1000000")
+    public int stock;
+
+    private StripedStockCounter counter;
+    private final LongAdder reserved = new LongAdder();
+
+    @Setup(Level.Iteration)
+    public void restock(CatalogState catalog) {
+        Book book = catalog.bookService.getBookById(HOT_BOOK_ID).orElseThrow();
+        book.setQuantity(stock);
+        catalog.bookService.saveBook(book, null);
+        counter = new StripedStockCounter(catalog.bookService, LEASE_SIZE, STRIPES);
+        reserved.reset();
+    }
+
+    @Benchmark
+    public boolean reserve(CatalogState catalog) {
+        boolean ok = mode.equals("striped")
+                ? counter.reserve(HOT_BOOK_ID, 1)
+                : catalog.bookService.reserveStock(HOT_BOOK_ID, 1);
+        if (ok) {
+            reserved.increment();
+        }
+        return ok;
+    }
+
+    // Every successful reservation must be backed by stock, and flushed leases must add up again
+    @TearDown(Level.Iteration)
+    public void verify(CatalogState catalog) {
+        counter.flush();
+        int left = catalog.bookService.getBookById(HOT_BOOK_ID).orElseThrow().getQuantity();
+        if (left < 0 || left + reserved.sum() != stock) {
+            throw new IllegalStateException("Stock mismatch: " + stock + " stocked, "
+                    + reserved.sum() + " reserved, " + left + " left");
+        }
+    }
+}
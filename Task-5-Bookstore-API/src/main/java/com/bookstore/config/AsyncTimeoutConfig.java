@@ -0,0 +1,50 @@
+package com.bookstore.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Async Timeout Configuration
+ *
+ * Async requests (StreamingResponseBody, Callable) get the finite global timeout
+ * spring.mvc.async.request-timeout. An endpoint that is meant to run longer sets its own
+ * timeout on the request before returning; it is applied when the async part starts.
+ * (SseEmitter and DeferredResult take theirs in the constructor.)
+ *
+ * Key Concepts:
+ * - Per-request timeout kept as a request attribute
+ * - Applied by a CallableProcessingInterceptor, before the servlet async context starts
+ * - Zero means no timeout, as for new SseEmitter(0L)
+ */
+@Configuration
+public class AsyncTimeoutConfig implements WebMvcConfigurer {
+
+    private static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutConfig.class.getName() + ".timeout";
+
+    // Use this timeout instead of the global one for the async part of the request (zero: no timeout)
+    public static void setTimeout(HttpServletRequest request, Duration timeout) {
+        request.setAttribute(TIMEOUT_ATTRIBUTE, timeout);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (timeout instanceof Duration duration && request instanceof AsyncWebRequest asyncRequest) {
+                    asyncRequest.setTimeout(duration.toMillis());
+                }
+            }
+        });
+    }
+}
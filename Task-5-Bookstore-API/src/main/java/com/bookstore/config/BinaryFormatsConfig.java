@@ -0,0 +1,38 @@
+package com.bookstore.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary Formats Configuration
+ * 
+ * Compact binary encodings of the same DTOs, chosen by the Accept header:
+ * application/cbor (RFC 8949) and application/x-jackson-smile.
+ * JSON stays the default for clients that accept anything or send no Accept header.
+ * 
+ * Key Concepts:
+ * - Content negotiation with HttpMessageConverter beans
+ * - Mappers built from Spring Boot's Jackson2ObjectMapperBuilder, so dates,
+ *   modules and features match the JSON output (the defaults Spring MVC registers
+ *   for these formats would not pick up spring.jackson.* settings)
+ */
+@Configuration
+public class BinaryFormatsConfig {
+    
+    // application/cbor
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+    
+    // application/x-jackson-smile (repeated property names are sent once and back-referenced)
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
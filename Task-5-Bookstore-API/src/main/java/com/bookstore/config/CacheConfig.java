@@ -0,0 +1,43 @@
+package com.bookstore.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Cache Configuration
+ * 
+ * Bounded in-process Caffeine caches for book lookups by ID and ISBN,
+ * and for /api/books/filter total counts.
+ * 
+ * Key Concepts:
+ * - Spring Cache abstraction (@Cacheable, @CacheEvict)
+ * - Caffeine size and TTL eviction (bookstore.cache.spec, bookstore.cache.count-spec)
+ * - Transaction-aware eviction (applied after commit)
+ * - Cache advice runs before the transaction, so hits never open one
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    
+    public static final String BOOKS_BY_ID = "booksById";
+    public static final String BOOKS_BY_ISBN = "booksByIsbn";
+    public static final String BOOK_FILTER_COUNTS = "bookFilterCounts";
+    
+    @Bean
+    public CacheManager cacheManager(@Value("${bookstore.cache.spec}") String spec,
+                                     @Value("${bookstore.cache.count-spec}") String countSpec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(BOOKS_BY_ID, BOOKS_BY_ISBN);
+        caffeineCacheManager.setCaffeine(Caffeine.from(spec));
+        // Counts are only cleared on writes, so they get their own short TTL as a safety net
+        caffeineCacheManager.registerCustomCache(BOOK_FILTER_COUNTS, Caffeine.from(countSpec).build());
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bookstore.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate Cache Configuration
+ *
+ * Second-level (shared, cross-session) cache for the Author and Book entities,
+ * the Author.books collection and cacheable query results, on JCache backed by Caffeine.
+ * Unlike CacheConfig (response DTOs) this caches entity state, so every
+ * repository lookup by id benefits, e.g. the author lookup on each book write.
+ *
+ * Key Concepts:
+ * - One JCache region per entity / collection, bounded by entry count and TTL
+ *   (bookstore.hibernate-cache.<region>.max-entries / ttl)
+ * - READ_WRITE concurrency: entries are locked during a write and replaced after commit
+ * - Query cache results are invalidated on every write to the tables they read
+ *   (the update timestamps region, which must never evict)
+ * - Regions are created here, so a missing one fails at startup (missing_cache_strategy=fail)
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String AUTHORS = "authors";
+    public static final String BOOKS = "books";
+    public static final String AUTHOR_BOOKS = "author-books";
+
+    // Property key of the query results region
+    private static final String QUERIES = "queries";
+
+    @Autowired
+    private Environment environment;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A manager of its own: the provider's default one is shared by every application context in the JVM
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create(provider.getDefaultURI() + "#" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        createRegion(cacheManager, AUTHORS, AUTHORS);
+        createRegion(cacheManager, BOOKS, BOOKS);
+        createRegion(cacheManager, AUTHOR_BOOKS, AUTHOR_BOOKS);
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, QUERIES);
+        // Last write time per table, checked by every query cache hit: unbounded, no expiry
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStoreByValue(false));
+        return cacheManager;
+    }
+
+    // Hand the prepared cache manager to Hibernate's JCache region factory
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    // Helper: Bounded region; Hibernate's cache entries are immutable, so they are stored by reference
+    private void createRegion(CacheManager cacheManager, String region, String key) {
+        long maxEntries = environment.getRequiredProperty(
+                "bookstore.hibernate-cache." + key + ".max-entries", Long.class);
+        Duration ttl = environment.getRequiredProperty("bookstore.hibernate-cache." + key + ".ttl", Duration.class);
+        cacheManager.createCache(region, new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setMaximumSize(OptionalLong.of(maxEntries))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos())));
+    }
+}
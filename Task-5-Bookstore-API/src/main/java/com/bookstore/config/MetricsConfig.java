@@ -0,0 +1,38 @@
+package com.bookstore.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Metrics Configuration
+ * 
+ * Most metrics are auto-configured by Actuator (see application.properties):
+ * - http.server.requests: latency histogram per route
+ * - hibernate.*: Hibernate Statistics (queries, entity loads, 2nd level cache)
+ * - hikaricp.*: connection pool gauges
+ * - cache.*: Caffeine cache statistics
+ * This class adds the per-route SQL statement count.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatementMetricsInterceptor(meterRegistry))
+                .addPathPatterns("/api/**");
+    }
+    
+    // Async MVC work (applicationTaskExecutor) counts SQL statements for the request that started it
+    @Bean
+    public TaskDecorator sqlStatementCountingTaskDecorator() {
+        return SqlStatementCounter::propagate;
+    }
+}
@@ -0,0 +1,54 @@
+package com.bookstore.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC Configuration
+ *
+ * Non-blocking database access for the reactive read API (/api/reactive/books),
+ * next to the JDBC pool used by JPA.
+ *
+ * Key Concepts:
+ * - R2DBC connection pool (r2dbc-pool) sized independently of Hikari
+ * - DatabaseClient for SQL with named bind parameters
+ * - The ConnectionFactory is deliberately not a bean: Spring Boot skips the
+ *   JDBC DataSource auto-configuration when one exists
+ *   (R2dbcAutoConfiguration is excluded in application.properties for the same reason)
+ */
+@Configuration
+public class R2dbcConfig implements DisposableBean {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient databaseClient(@Value("${bookstore.r2dbc.url}") String url,
+                                         @Value("${spring.datasource.username}") String username,
+                                         @Value("${spring.datasource.password}") String password,
+                                         @Value("${bookstore.r2dbc.pool.max-size}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options))
+                .name("reactive")
+                .maxSize(maxSize)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
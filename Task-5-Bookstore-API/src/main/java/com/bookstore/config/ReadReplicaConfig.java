@@ -0,0 +1,120 @@
+package com.bookstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read Replica Configuration
+ *
+ * Active with the "read-replicas" profile.
+ * Replaces the auto-configured pool with one pool for the primary
+ * (spring.datasource.*) and one per replica (bookstore.datasource.replica-urls).
+ * Read-only transactions go to the replicas, everything else to the primary.
+ *
+ * Key Concepts:
+ * - Spring profiles (@Profile)
+ * - LazyConnectionDataSourceProxy + ReadWriteRoutingDataSource
+ * - Read-your-writes: a client that just wrote reads from the primary for a while
+ * - Replica health in /actuator/health, pool metrics tagged pool=primary / replica-N
+ */
+@Configuration
+@Profile("read-replicas")
+public class ReadReplicaConfig implements WebMvcConfigurer, DisposableBean {
+
+    @Autowired
+    private Environment environment;
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    // The DataSource used by JPA, Flyway and Actuator
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        register(primary, "primary", meterRegistry);
+
+        String[] replicaUrls = environment.getRequiredProperty("bookstore.datasource.replica-urls", String[].class);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replicaUrls[i].trim())
+                    .username(environment.getProperty("bookstore.datasource.replica-username", properties.determineUsername()))
+                    .password(environment.getProperty("bookstore.datasource.replica-password", properties.determinePassword()))
+                    .build();
+            replica.setMaximumPoolSize(environment.getProperty("bookstore.datasource.replica-pool-size", Integer.class, 10));
+            // Fail fast on a dead replica, the read is retried on the primary
+            replica.setConnectionTimeout(environment.getProperty(
+                    "bookstore.datasource.replica-connection-timeout", Duration.class, Duration.ofSeconds(2)).toMillis());
+            replica.setReadOnly(true);
+            register(replica, "replica-" + i, meterRegistry);
+            replicas.add(replica);
+        }
+
+        Duration checkInterval = environment.getProperty(
+                "bookstore.datasource.replica-check-interval", Duration.class, Duration.ofSeconds(5));
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replicas, checkInterval);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Replica states under /actuator/health (reads fall back to the primary, so the service stays UP)
+    @Bean
+    public HealthIndicator replicasHealthIndicator(DataSource dataSource) {
+        return () -> Health.up()
+                .withDetail("healthyReplicas", routingDataSource.healthyReplicaCount())
+                .withDetails(routingDataSource.replicaStatus())
+                .build();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        Duration window = environment.getProperty(
+                "bookstore.datasource.read-your-writes-window", Duration.class, Duration.ofSeconds(5));
+        registry.addInterceptor(new ReadYourWritesInterceptor(window))
+                .addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void destroy() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+        pools.forEach(HikariDataSource::close);
+    }
+
+    // Helper: Name the pool (hikaricp.* metrics tag) and track it for shutdown
+    private void register(HikariDataSource pool, String name, ObjectProvider<MeterRegistry> meterRegistry) {
+        pool.setPoolName(name);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        pools.add(pool);
+    }
+}
@@ -0,0 +1,151 @@
+package com.bookstore.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read/Write Routing DataSource
+ *
+ * Hands out replica connections inside @Transactional(readOnly = true)
+ * and primary connections everywhere else.
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag of a
+ * transaction is only known once the transaction has started, i.e. when
+ * the first statement runs, not when JPA begins the transaction.
+ *
+ * Key Concepts:
+ * - Routing on TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+ * - Round robin over healthy replicas
+ * - Background health checks (Connection.isValid); a replica that fails is
+ *   skipped until the next successful check
+ * - Primary fallback when no replica is healthy or a replica connection fails
+ * - Per-thread override to force the primary (read-your-writes)
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration checkInterval) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = checkInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Send every connection of the current thread to the primary (until cleared with false)
+    public static void setPrimaryForced(boolean forced) {
+        if (forced) {
+            PRIMARY_FORCED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_FORCED.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || Boolean.TRUE.equals(PRIMARY_FORCED.get())) {
+            return primary.getConnection();
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Credentials are configured per pool; use getConnection()");
+    }
+
+    // Health of every replica by name ("UP" or "DOWN: <last error>")
+    public Map<String, String> replicaStatus() {
+        Map<String, String> status = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            status.put(replica.name, replica.healthy ? "UP" : "DOWN: " + replica.lastError);
+        }
+        return status;
+    }
+
+    // Number of replicas currently receiving reads
+    public long healthyReplicaCount() {
+        return replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+    }
+
+    // Helper: Validate one connection per replica and update its state
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(2)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(new SQLException("Connection is not valid"));
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            } catch (RuntimeException e) {
+                // Keep the scheduled check alive whatever the pool throws
+                replica.markDown(new SQLException(e));
+            }
+        }
+    }
+
+    private static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile String lastError;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void markUp() {
+            healthy = true;
+        }
+
+        void markDown(SQLException e) {
+            healthy = false;
+            lastError = e.getMessage();
+        }
+    }
+}
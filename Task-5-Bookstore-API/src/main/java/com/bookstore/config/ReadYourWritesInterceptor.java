@@ -0,0 +1,67 @@
+package com.bookstore.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Read-Your-Writes Interceptor
+ *
+ * Replicas lag behind the primary, so a client that just wrote could read
+ * its old data back from a replica. After a write request (anything but
+ * GET, HEAD, OPTIONS) the client gets a short-lived cookie; while the
+ * cookie is present, its requests read from the primary too.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    public static final String COOKIE_NAME = "bookstore-read-primary";
+
+    private final Duration window;
+
+    public ReadYourWritesInterceptor(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isWrite(request)) {
+            // Set before the handler runs, the response body may commit the headers
+            Cookie cookie = new Cookie(COOKIE_NAME, "1");
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+            ReadWriteRoutingDataSource.setPrimaryForced(true);
+        } else if (hasCookie(request)) {
+            ReadWriteRoutingDataSource.setPrimaryForced(true);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        ReadWriteRoutingDataSource.setPrimaryForced(false);
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static boolean hasCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
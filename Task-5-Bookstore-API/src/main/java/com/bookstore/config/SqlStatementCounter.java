@@ -0,0 +1,56 @@
+package com.bookstore.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SQL Statement Counter
+ * 
+ * Hibernate StatementInspector that counts the SQL statements prepared
+ * for the current unit of work (an HTTP request), so each request can report how many it issued.
+ * Registered through hibernate.session_factory.statement_inspector.
+ * 
+ * The counter belongs to the request, not to a thread: it is bound to whichever thread works
+ * for the request, and tasks handed to the application task executor (async MVC, e.g. the
+ * streaming NDJSON export) carry it along (see propagate).
+ */
+public class SqlStatementCounter implements StatementInspector {
+    
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger counter = CURRENT.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return sql;
+    }
+    
+    // Count the statements of the current thread into the given counter (null stops counting)
+    public static void bind(AtomicInteger counter) {
+        if (counter == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(counter);
+        }
+    }
+    
+    // Wrap a task so its statements count for the unit of work that submitted it
+    public static Runnable propagate(Runnable task) {
+        AtomicInteger counter = CURRENT.get();
+        if (counter == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = CURRENT.get();
+            bind(counter);
+            try {
+                task.run();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+}
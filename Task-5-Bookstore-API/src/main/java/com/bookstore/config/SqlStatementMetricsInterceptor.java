@@ -0,0 +1,66 @@
+package com.bookstore.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SQL Statement Metrics Interceptor
+ * 
+ * Records the number of SQL statements each request issued as the
+ * bookstore.http.sql.statements histogram, tagged by route and method.
+ * 
+ * The counter is kept as a request attribute, so an async request (StreamingResponseBody)
+ * keeps counting on the executor thread and is recorded once, when its last dispatch completes.
+ */
+public class SqlStatementMetricsInterceptor implements AsyncHandlerInterceptor {
+    
+    // Request attribute holding the AtomicInteger counter of the request
+    public static final String COUNTER_ATTRIBUTE = SqlStatementMetricsInterceptor.class.getName() + ".counter";
+    
+    private final MeterRegistry meterRegistry;
+    
+    public SqlStatementMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async dispatch continues the counter of its request
+        AtomicInteger counter = (AtomicInteger) request.getAttribute(COUNTER_ATTRIBUTE);
+        if (counter == null) {
+            counter = new AtomicInteger();
+            request.setAttribute(COUNTER_ATTRIBUTE, counter);
+        }
+        SqlStatementCounter.bind(counter);
+        return true;
+    }
+    
+    // The request thread is released while the async part runs elsewhere
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        SqlStatementCounter.bind(null);
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        SqlStatementCounter.bind(null);
+        AtomicInteger counter = (AtomicInteger) request.getAttribute(COUNTER_ATTRIBUTE);
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("bookstore.http.sql.statements")
+                .description("SQL statements issued per HTTP request")
+                .baseUnit("statements")
+                .tag("uri", route != null ? route.toString() : "UNKNOWN")
+                .tag("method", request.getMethod())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(counter != null ? counter.get() : 0);
+    }
+}
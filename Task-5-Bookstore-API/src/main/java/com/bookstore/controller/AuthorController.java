@@ -1,17 +1,27 @@
 package com.bookstore.controller;
 
+import com.bookstore.dto.AuthorDeletionStatusDTO;
 import com.bookstore.dto.AuthorRequestDTO;
 import com.bookstore.dto.AuthorResponseDTO;
+import com.bookstore.dto.CursorPageResponseDTO;
 import com.bookstore.entity.Author;
+import com.bookstore.mapper.AuthorMapper;
+import com.bookstore.service.AuthorDeletionService;
 import com.bookstore.service.AuthorService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.net.URI;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Author Controller
@@ -23,102 +33,167 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/authors")
 public class AuthorController {
     
+    // Largest page of GET /api/authors/{id}/books
+    private static final int MAX_BOOKS_PAGE_SIZE = 1000;
+    
     @Autowired
     private AuthorService authorService;
     
+    @Autowired
+    private AuthorMapper authorMapper;
+    
+    @Autowired
+    private AuthorDeletionService authorDeletionService;
+    
     // Create Author
     @PostMapping
     public ResponseEntity<AuthorResponseDTO> createAuthor(@RequestBody AuthorRequestDTO dto) {
-        Author author = new Author();
-        author.setName(dto.getName());
-        author.setBiography(dto.getBiography());
-        author.setEmail(dto.getEmail());
-        
+        Author author = authorMapper.updateEntity(new Author(), dto);
         Author saved = authorService.saveAuthor(author);
-        return new ResponseEntity<>(mapToResponseDTO(saved), HttpStatus.CREATED);
+        return new ResponseEntity<>(authorMapper.toResponseDTO(saved), HttpStatus.CREATED);
     }
     
-    // Get all authors
+    // Get all authors (each with book count and first books)
     @GetMapping
     public ResponseEntity<List<AuthorResponseDTO>> getAllAuthors() {
-        List<AuthorResponseDTO> authors = authorService.getAllAuthors()
-                .stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(authors);
+        return ResponseEntity.ok(authorService.getAuthorListing());
     }
     
     // Get all authors with pagination
     @GetMapping("/paginated")
     public ResponseEntity<Page<AuthorResponseDTO>> getAllAuthorsPaginated(Pageable pageable) {
-        Page<AuthorResponseDTO> authors = authorService.getAllAuthors(pageable)
-                .map(this::mapToResponseDTO);
-        return ResponseEntity.ok(authors);
+        return ResponseEntity.ok(authorService.getAuthorListing(pageable));
+    }
+    
+    // Get authors with keyset (cursor) pagination
+    // Example: GET /api/authors/scroll?size=10&sortBy=name
+    // then GET /api/authors/scroll?size=10&cursor=<nextCursor>
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponseDTO<AuthorResponseDTO>> scrollAuthors(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        try {
+            return ResponseEntity.ok(authorService.scrollAuthorListing(cursor, size, sortBy, sortDir));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     // Get author by ID
+    // Answers If-None-Match from a version lookup (304) without loading the author and books
     @GetMapping("/{id}")
-    public ResponseEntity<AuthorResponseDTO> getAuthorById(@PathVariable Long id) {
-        return authorService.getAuthorById(id)
-                .map(author -> ResponseEntity.ok(mapToResponseDTO(author)))
+    public ResponseEntity<AuthorResponseDTO> getAuthorById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> etag = authorService.getAuthorVersion(id).map(ETags::ofAuthor);
+            if (etag.isPresent() && ETags.noneMatchHit(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
+        return authorService.getAuthorResponseById(id)
+                .map(author -> ResponseEntity.ok()
+                        .eTag(ETags.ofAuthor(author))
+                        .body(author))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // Get an author's books, one page at a time (listings only carry the first few)
+    // Example: GET /api/authors/1/books?page=0&size=20
+    @GetMapping("/{id}/books")
+    public ResponseEntity<Page<AuthorResponseDTO.BookDTO>> getAuthorBooks(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (size > MAX_BOOKS_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return authorService.getAuthorBooks(id, PageRequest.of(page, size, Sort.by("id")))
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Get author by email
+    @GetMapping("/email/{email}")
+    public ResponseEntity<AuthorResponseDTO> getAuthorByEmail(@PathVariable String email) {
+        return authorService.getAuthorResponseByEmail(email)
+                .map(author -> ResponseEntity.ok()
+                        .eTag(ETags.ofAuthor(author))
+                        .body(author))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     // Search authors by name
     @GetMapping("/search")
     public ResponseEntity<List<AuthorResponseDTO>> searchAuthors(@RequestParam String name) {
-        List<AuthorResponseDTO> authors = authorService.searchAuthorsByName(name)
-                .stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(authors);
+        return ResponseEntity.ok(authorService.searchAuthorListing(name));
     }
     
     // Update Author
+    // With If-Match, the update only applies to the version the client last read (412 otherwise)
     @PutMapping("/{id}")
-    public ResponseEntity<AuthorResponseDTO> updateAuthor(@PathVariable Long id, 
-                                                          @RequestBody AuthorRequestDTO dto) {
-        return authorService.getAuthorById(id)
-                .map(author -> {
-                    author.setName(dto.getName());
-                    author.setBiography(dto.getBiography());
-                    author.setEmail(dto.getEmail());
-                    Author updated = authorService.saveAuthor(author);
-                    return ResponseEntity.ok(mapToResponseDTO(updated));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<AuthorResponseDTO> updateAuthor(
+            @PathVariable Long id,
+            @RequestBody AuthorRequestDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Author> existing = authorService.getAuthorById(id);
+        if (existing.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ifMatch != null) {
+            // The author ETag covers the book list too, which the loaded entity does not carry
+            Optional<String> etag = authorService.getAuthorVersion(id).map(ETags::ofAuthor);
+            if (etag.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (!ETags.matchHit(ifMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(etag.get()).build();
+            }
+        }
+        
+        try {
+            Author updated = authorService.saveAuthor(authorMapper.updateEntity(existing.get(), dto));
+            AuthorResponseDTO response = authorMapper.toResponseDTO(updated);
+            return ResponseEntity.ok()
+                    .eTag(ETags.ofAuthor(response))
+                    .body(response);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Written by someone else between the check above and the update
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
     }
     
-    // Delete Author
+    // Delete Author with all of the author's books
+    // async=true deletes the books in chunks of short transactions: 202 Accepted, progress at the Location
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteAuthor(@PathVariable Long id) {
-        if (authorService.existsById(id)) {
-            authorService.deleteAuthor(id);
-            return ResponseEntity.noContent().build();
+    public ResponseEntity<?> deleteAuthor(@PathVariable Long id,
+                                          @RequestParam(defaultValue = "false") boolean async) {
+        if (!authorService.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (async) {
+            AuthorDeletionStatusDTO status = authorDeletionService.startDeletion(id);
+            URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/authors/deletions/{jobId}")
+                    .buildAndExpand(status.getId())
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(status);
         }
-        return ResponseEntity.notFound().build();
+        authorService.deleteAuthor(id);
+        return ResponseEntity.noContent().build();
     }
     
-    // Helper method to map Author to AuthorResponseDTO
-    private AuthorResponseDTO mapToResponseDTO(Author author) {
-        AuthorResponseDTO dto = new AuthorResponseDTO();
-        dto.setId(author.getId());
-        dto.setName(author.getName());
-        dto.setBiography(author.getBiography());
-        dto.setEmail(author.getEmail());
-        
-        if (author.getBooks() != null) {
-            dto.setBooks(author.getBooks().stream()
-                    .map(book -> {
-                        AuthorResponseDTO.BookDTO bookDTO = new AuthorResponseDTO.BookDTO();
-                        bookDTO.setId(book.getId());
-                        bookDTO.setTitle(book.getTitle());
-                        bookDTO.setIsbn(book.getIsbn());
-                        return bookDTO;
-                    })
-                    .collect(Collectors.toList()));
-        }
-        
-        return dto;
+    // Get the progress of an asynchronous author deletion
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<AuthorDeletionStatusDTO> getDeletion(@PathVariable String jobId) {
+        return authorDeletionService.getDeletion(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -1,19 +1,42 @@
 package com.bookstore.controller;
 
+import com.bookstore.config.AsyncTimeoutConfig;
 import com.bookstore.dto.BookRequestDTO;
+import com.bookstore.dto.CursorPageResponseDTO;
 import com.bookstore.dto.BookResponseDTO;
+import com.bookstore.dto.BulkImportResultDTO;
+import com.bookstore.dto.CatalogStatsDTO;
+import com.bookstore.dto.FilterConsistencyDTO;
+import com.bookstore.entity.Author;
 import com.bookstore.entity.Book;
+import com.bookstore.mapper.BookMapper;
+import com.bookstore.repository.BookRepository;
 import com.bookstore.service.BookService;
+import com.bookstore.service.BookStockService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -29,12 +52,34 @@ public class BookController {
     @Autowired
     private BookService bookService;
     
+    @Autowired
+    private BookStockService bookStockService;
+    
+    @Autowired
+    private BookMapper bookMapper;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Timeout of the NDJSON export (0 = none), which can outlast the global async timeout
+    @Value("${bookstore.export.timeout}")
+    private Duration exportTimeout;
+    
     // Create Book
     @PostMapping
     public ResponseEntity<BookResponseDTO> createBook(@RequestBody BookRequestDTO dto) {
-        Book book = mapToEntity(dto);
+        Book book = bookMapper.toEntity(dto);
         Book saved = bookService.saveBook(book, dto.getAuthorId());
-        return new ResponseEntity<>(mapToResponseDTO(saved), HttpStatus.CREATED);
+        return new ResponseEntity<>(bookMapper.toResponseDTO(saved), HttpStatus.CREATED);
+    }
+    
+    // Bulk create books from a JSON array or a newline-delimited JSON stream
+    // The body is read item by item, so it never has to fit in memory.
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<BulkImportResultDTO> bulkCreateBooks(InputStream body) throws IOException {
+        try (MappingIterator<BookRequestDTO> items = objectMapper.readerFor(BookRequestDTO.class).readValues(body)) {
+            return ResponseEntity.ok(bookService.bulkCreateBooks(items));
+        }
     }
     
     // Get all books
@@ -42,11 +87,30 @@ public class BookController {
     public ResponseEntity<List<BookResponseDTO>> getAllBooks() {
         List<BookResponseDTO> books = bookService.getAllBooks()
                 .stream()
-                .map(this::mapToResponseDTO)
+                .map(bookMapper::toResponseDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(books);
     }
     
+    // Export the full catalog as newline-delimited JSON (one book per line)
+    // Rows are streamed from the database and written as they arrive, under their own timeout
+    // (bookstore.export.timeout) instead of the global async one.
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportBooks(HttpServletRequest request) {
+        AsyncTimeoutConfig.setTimeout(request, exportTimeout);
+        StreamingResponseBody body = out -> bookService.exportBooks(book -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(bookMapper.toResponseDTO(book)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+    
     // Get all books with pagination
     // Example: GET /api/books/paginated?page=0&size=10&sort=price,desc
     @GetMapping("/paginated")
@@ -62,43 +126,88 @@ public class BookController {
         
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<BookResponseDTO> books = bookService.getAllBooks(pageable)
-                .map(this::mapToResponseDTO);
+                .map(bookMapper::toResponseDTO);
         
         return ResponseEntity.ok(books);
     }
     
+    // Get books with keyset (cursor) pagination
+    // Example: GET /api/books/scroll?size=10&sortBy=price&sortDir=desc
+    // then GET /api/books/scroll?size=10&cursor=<nextCursor>
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponseDTO<BookResponseDTO>> scrollBooks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        try {
+            CursorPageResponseDTO<BookResponseDTO> books = bookService
+                    .scrollBooks(cursor, size, sortBy, sortDir)
+                    .map(bookMapper::toResponseDTO);
+            return ResponseEntity.ok(books);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Get book by ID
+    // Answers If-None-Match from a version lookup (304) without loading the book
     @GetMapping("/{id}")
-    public ResponseEntity<BookResponseDTO> getBookById(@PathVariable Long id) {
-        return bookService.getBookById(id)
-                .map(book -> ResponseEntity.ok(mapToResponseDTO(book)))
+    public ResponseEntity<BookResponseDTO> getBookById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            ResponseEntity<BookResponseDTO> notModified = notModified(bookService.getBookVersion(id), ifNoneMatch);
+            if (notModified != null) {
+                return notModified;
+            }
+        }
+        return bookService.getBookResponseById(id)
+                .map(this::withETag)
                 .orElse(ResponseEntity.notFound().build());
     }
     
     // Get book by ISBN
     @GetMapping("/isbn/{isbn}")
-    public ResponseEntity<BookResponseDTO> getBookByIsbn(@PathVariable String isbn) {
-        return bookService.getBookByIsbn(isbn)
-                .map(book -> ResponseEntity.ok(mapToResponseDTO(book)))
+    public ResponseEntity<BookResponseDTO> getBookByIsbn(
+            @PathVariable String isbn,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            ResponseEntity<BookResponseDTO> notModified = notModified(bookService.getBookVersionByIsbn(isbn), ifNoneMatch);
+            if (notModified != null) {
+                return notModified;
+            }
+        }
+        return bookService.getBookResponseByIsbn(isbn)
+                .map(this::withETag)
                 .orElse(ResponseEntity.notFound().build());
     }
     
-    // Search books by title
+    // Search books by title and description (ranked full-text search)
+    // Example: GET /api/books/search?title=java spring&limit=20
     @GetMapping("/search")
-    public ResponseEntity<List<BookResponseDTO>> searchBooks(@RequestParam String title) {
-        List<BookResponseDTO> books = bookService.searchBooksByTitle(title)
+    public ResponseEntity<List<BookResponseDTO>> searchBooks(
+            @RequestParam String title,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<BookResponseDTO> books = bookService.searchBooksByTitle(title, limit)
                 .stream()
-                .map(this::mapToResponseDTO)
+                .map(bookMapper::toResponseDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(books);
     }
     
+    // Get book count, stock and price statistics per genre and per publisher
+    @GetMapping("/stats")
+    public ResponseEntity<CatalogStatsDTO> getCatalogStats() {
+        return ResponseEntity.ok(bookService.getCatalogStats());
+    }
+    
     // Get books by genre
     @GetMapping("/genre/{genre}")
     public ResponseEntity<List<BookResponseDTO>> getBooksByGenre(@PathVariable String genre) {
         List<BookResponseDTO> books = bookService.getBooksByGenre(genre)
                 .stream()
-                .map(this::mapToResponseDTO)
+                .map(bookMapper::toResponseDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(books);
     }
@@ -108,37 +217,44 @@ public class BookController {
     public ResponseEntity<List<BookResponseDTO>> getBooksByAuthor(@PathVariable Long authorId) {
         List<BookResponseDTO> books = bookService.getBooksByAuthor(authorId)
                 .stream()
-                .map(this::mapToResponseDTO)
+                .map(bookMapper::toResponseDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(books);
     }
     
-    // Get books by price range
+    // Get books by price range, cheapest first (all matches unless size is given)
+    // Example: GET /api/books/price?minPrice=10&maxPrice=50&page=0&size=20
     @GetMapping("/price")
     public ResponseEntity<List<BookResponseDTO>> getBooksByPriceRange(
             @RequestParam BigDecimal minPrice,
-            @RequestParam BigDecimal maxPrice) {
-        List<BookResponseDTO> books = bookService.getBooksByPriceRange(minPrice, maxPrice)
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        List<BookResponseDTO> books = bookService.getBooksByPriceRange(minPrice, maxPrice, pageOf(page, size))
                 .stream()
-                .map(this::mapToResponseDTO)
+                .map(bookMapper::toResponseDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(books);
     }
     
-    // Get expensive books
+    // Get expensive books, most expensive first (all matches unless size is given)
     @GetMapping("/expensive")
     public ResponseEntity<List<BookResponseDTO>> getExpensiveBooks(
-            @RequestParam(defaultValue = "500") BigDecimal minPrice) {
-        List<BookResponseDTO> books = bookService.getExpensiveBooks(minPrice)
+            @RequestParam(defaultValue = "500") BigDecimal minPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        List<BookResponseDTO> books = bookService.getExpensiveBooks(minPrice, pageOf(page, size))
                 .stream()
-                .map(this::mapToResponseDTO)
+                .map(bookMapper::toResponseDTO)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(books);
     }
     
     // Filter books with multiple criteria (Pagination + Filtering)
+    // count=exact (default) runs a COUNT per request, count=cached reuses the total of the same filter,
+    // count=none returns a Slice (no totals, size + 1 rows read to know if there is a next page)
     @GetMapping("/filter")
-    public ResponseEntity<Page<BookResponseDTO>> filterBooks(
+    public ResponseEntity<Slice<BookResponseDTO>> filterBooks(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String genre,
             @RequestParam(required = false) String authorName,
@@ -147,7 +263,8 @@ public class BookController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "exact") String count) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") 
                 ? Sort.by(sortBy).descending() 
@@ -155,25 +272,96 @@ public class BookController {
         
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<BookResponseDTO> books = bookService.filterBooks(
-                title, genre, authorName, minPrice, maxPrice, pageable)
-                .map(this::mapToResponseDTO);
+        Slice<Book> books;
+        switch (count.toLowerCase()) {
+            case "exact":
+                books = bookService.filterBooks(title, genre, authorName, minPrice, maxPrice, pageable);
+                break;
+            case "cached":
+                books = bookService.filterBooksWithCachedCount(title, genre, authorName, minPrice, maxPrice, pageable);
+                break;
+            case "none":
+                books = bookService.filterBooksSlice(title, genre, authorName, minPrice, maxPrice, pageable);
+                break;
+            default:
+                return ResponseEntity.badRequest().build();
+        }
         
-        return ResponseEntity.ok(books);
+        return ResponseEntity.ok(books.map(bookMapper::toResponseDTO));
+    }
+    
+    // Compare the columnar filter index with the database for one filter (404 when the index is disabled)
+    @GetMapping("/filter/consistency")
+    public ResponseEntity<FilterConsistencyDTO> checkFilterConsistency(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String authorName,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        try {
+            return ResponseEntity.ok(bookService.checkFilterIndex(title, genre, authorName, minPrice, maxPrice));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
     
     // Update Book
+    // With If-Match, the update only applies to the version the client last read (412 otherwise)
     @PutMapping("/{id}")
-    public ResponseEntity<BookResponseDTO> updateBook(@PathVariable Long id, 
-                                                       @RequestBody BookRequestDTO dto) {
-        return bookService.getBookById(id)
-                .map(book -> {
-                    Book updatedBook = mapToEntity(dto);
-                    updatedBook.setId(id);
-                    Book saved = bookService.saveBook(updatedBook, dto.getAuthorId());
-                    return ResponseEntity.ok(mapToResponseDTO(saved));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<BookResponseDTO> updateBook(
+            @PathVariable Long id,
+            @RequestBody BookRequestDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Book> existing = bookService.getBookById(id);
+        if (existing.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Long version = existing.get().getVersion();
+        Author author = existing.get().getAuthor();
+        String etag = ETags.of(version, author == null ? null : author.getVersion());
+        if (ifMatch != null && !ETags.matchHit(ifMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(etag).build();
+        }
+        
+        Book updatedBook = bookMapper.toEntity(dto);
+        updatedBook.setId(id);
+        updatedBook.setVersion(version);
+        try {
+            Book saved = bookService.saveBook(updatedBook, dto.getAuthorId());
+            return withETag(bookMapper.toResponseDTO(saved));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Written by someone else between the check above and the update
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    // Reserve stock (atomic, never below zero): 204, 409 when too few are left
+    @PostMapping("/{id}/stock/reserve")
+    public ResponseEntity<Void> reserveStock(@PathVariable Long id,
+                                             @RequestParam(defaultValue = "1") int quantity) {
+        try {
+            if (bookStockService.reserve(id, quantity)) {
+                return ResponseEntity.noContent().build();
+            }
+            return bookService.existsById(id)
+                    ? ResponseEntity.status(HttpStatus.CONFLICT).build()
+                    : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Release previously reserved stock: 204, 400 for quantities outside 1..BookStockService.MAX_QUANTITY
+    @PostMapping("/{id}/stock/release")
+    public ResponseEntity<Void> releaseStock(@PathVariable Long id,
+                                             @RequestParam(defaultValue = "1") int quantity) {
+        try {
+            return bookStockService.release(id, quantity)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     // Delete Book
@@ -186,41 +374,25 @@ public class BookController {
         return ResponseEntity.notFound().build();
     }
     
-    // Helper: Map BookRequestDTO to Book entity
-    private Book mapToEntity(BookRequestDTO dto) {
-        Book book = new Book();
-        book.setTitle(dto.getTitle());
-        book.setIsbn(dto.getIsbn());
-        book.setDescription(dto.getDescription());
-        book.setPrice(dto.getPrice());
-        book.setQuantity(dto.getQuantity());
-        book.setPublishedDate(dto.getPublishedDate());
-        book.setGenre(dto.getGenre());
-        book.setPublisher(dto.getPublisher());
-        return book;
-    }
-    
-    // Helper: Map Book entity to BookResponseDTO
-    private BookResponseDTO mapToResponseDTO(Book book) {
-        BookResponseDTO dto = new BookResponseDTO();
-        dto.setId(book.getId());
-        dto.setTitle(book.getTitle());
-        dto.setIsbn(book.getIsbn());
-        dto.setDescription(book.getDescription());
-        dto.setPrice(book.getPrice());
-        dto.setQuantity(book.getQuantity());
-        dto.setPublishedDate(book.getPublishedDate());
-        dto.setGenre(book.getGenre());
-        dto.setPublisher(book.getPublisher());
-        
-        if (book.getAuthor() != null) {
-            BookResponseDTO.AuthorDTO authorDTO = new BookResponseDTO.AuthorDTO();
-            authorDTO.setId(book.getAuthor().getId());
-            authorDTO.setName(book.getAuthor().getName());
-            authorDTO.setEmail(book.getAuthor().getEmail());
-            dto.setAuthor(authorDTO);
+    // Helper: Optional page/size parameters (no size means every match)
+    private Pageable pageOf(int page, Integer size) {
+        return size == null ? Pageable.unpaged() : PageRequest.of(page, size);
+    }
+    
+    // Helper: 200 response carrying the ETag of the book and author versions
+    private ResponseEntity<BookResponseDTO> withETag(BookResponseDTO book) {
+        return ResponseEntity.ok().eTag(ETags.ofBook(book)).body(book);
+    }
+    
+    // Helper: 304 when If-None-Match lists the current versions, else null (404 and misses take the normal path)
+    private ResponseEntity<BookResponseDTO> notModified(Optional<BookRepository.BookVersion> version, String ifNoneMatch) {
+        if (version.isEmpty()) {
+            return null;
         }
-        
-        return dto;
+        String etag = ETags.ofBook(version.get());
+        if (!ETags.noneMatchHit(ifNoneMatch, etag)) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
     }
 }
@@ -0,0 +1,69 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.ImportJobStatusDTO;
+import com.bookstore.service.BookImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Book Import Controller
+ *
+ * Asynchronous CSV catalog imports.
+ * POST returns 202 Accepted right after the upload is stored; the import runs in the
+ * background and its progress is polled at the Location returned.
+ */
+@RestController
+@RequestMapping("/api/books/imports")
+public class BookImportController {
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    // Start an import from a CSV body (header row required)
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<ImportJobStatusDTO> startImport(InputStream body) throws IOException {
+        try {
+            ImportJobStatusDTO status = bookImportService.startImport(body);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}")
+                    .buildAndExpand(status.getId())
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Get all imports
+    @GetMapping
+    public ResponseEntity<List<ImportJobStatusDTO>> getAllImports() {
+        return ResponseEntity.ok(bookImportService.getAllImports());
+    }
+
+    // Get import status and progress
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobStatusDTO> getImport(@PathVariable String id) {
+        return bookImportService.getImport(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Resume a failed import from its last checkpoint
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobStatusDTO> resumeImport(@PathVariable String id) {
+        try {
+            return bookImportService.resumeImport(id)
+                    .map(status -> ResponseEntity.status(HttpStatus.ACCEPTED).body(status))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cache Controller
+ * 
+ * Exposes statistics of the in-process lookup caches.
+ */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    // Get hit/miss/eviction statistics for every cache
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        List<CacheStatsDTO> stats = cacheManager.getCacheNames()
+                .stream()
+                .map(this::mapToStatsDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(stats);
+    }
+    
+    // Helper: Read the native Caffeine statistics of a cache
+    private CacheStatsDTO mapToStatsDTO(String name) {
+        Cache<?, ?> cache = (Cache<?, ?>) cacheManager.getCache(name).getNativeCache();
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(name, cache.estimatedSize(), stats.hitCount(),
+                stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+}
@@ -0,0 +1,74 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.CatalogChangeDTO;
+import com.bookstore.service.CatalogChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.List;
+
+/**
+ * Catalog Change Controller
+ *
+ * Change feed of book and author creates, updates and deletes, in commit order.
+ * Consumers (edge caches, search indexers) keep the offset of the last change they
+ * applied and resume after it, instead of polling the catalog.
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class CatalogChangeController {
+
+    // Largest page of GET /api/changes
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private CatalogChangeFeed catalogChangeFeed;
+
+    // Get a page of changes after an offset (404 when the feed is disabled)
+    // Example: GET /api/changes?after=0&limit=100, then after=<offset of the last change>
+    @GetMapping
+    public ResponseEntity<List<CatalogChangeDTO>> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (!catalogChangeFeed.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (after < 0 || limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .header("Bookstore-Change-Head", Long.toString(catalogChangeFeed.getHead()))
+                .body(catalogChangeFeed.getChanges(after, limit));
+    }
+
+    // Stream changes as Server-Sent Events ("change" events, id = offset)
+    // Starts after the given offset, the Last-Event-ID of a reconnecting EventSource, or now.
+    // Example: curl -N "http://localhost:8080/api/changes/stream?after=0"
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (!catalogChangeFeed.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        Long start = after;
+        try {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                start = Long.parseLong(lastEventId.trim());
+            }
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (start != null && start < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(catalogChangeFeed.subscribe(start));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.AuthorResponseDTO;
+import com.bookstore.dto.BookResponseDTO;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+
+import java.util.List;
+
+/**
+ * ETags
+ *
+ * Builds and compares entity tags from the @Version columns of the entities in a representation.
+ * Because a version is bumped on every write of its row, a version lookup is enough
+ * to answer a conditional request without loading the resource.
+ *
+ * Key Concepts:
+ * - Strong ETag: "<version>", or the parts of a composite one joined with '-'
+ * - Book: its version and the version of the embedded author
+ * - Author: its version, plus the count, id sum and version sum of the listed books
+ *   (a book write changes one of them without touching the author row)
+ * - The same parts come from the response DTO (200) or from a version query (304, 412)
+ * - If-None-Match (GET): weak comparison, "W/" prefixes ignored, 304 on match
+ * - If-Match (PUT): strong comparison, 412 on mismatch
+ * - "*" matches any existing resource
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    // ETag for entity versions (rows written before versioning start at 0)
+    static String of(Long... versions) {
+        StringBuilder etag = new StringBuilder("\"");
+        for (int i = 0; i < versions.length; i++) {
+            if (i > 0) {
+                etag.append('-');
+            }
+            etag.append(versions[i] == null ? 0 : versions[i]);
+        }
+        return etag.append('"').toString();
+    }
+
+    // ETag of a book response
+    static String ofBook(BookResponseDTO book) {
+        return of(book.getVersion(), book.getAuthor() == null ? null : book.getAuthor().getVersion());
+    }
+
+    // ETag of a book from its version lookup
+    static String ofBook(BookRepository.BookVersion version) {
+        return of(version.getVersion(), version.getAuthorVersion());
+    }
+
+    // ETag of a single author response (which lists all of the author's books)
+    static String ofAuthor(AuthorResponseDTO author) {
+        List<AuthorResponseDTO.BookDTO> books = author.getBooks() == null ? List.of() : author.getBooks();
+        long bookIds = 0;
+        long bookVersions = 0;
+        for (AuthorResponseDTO.BookDTO book : books) {
+            bookIds += book.getId();
+            bookVersions += book.getVersion() == null ? 0 : book.getVersion();
+        }
+        return of(author.getVersion(), (long) books.size(), bookIds, bookVersions);
+    }
+
+    // ETag of an author from its version lookup
+    static String ofAuthor(AuthorRepository.AuthorVersion version) {
+        return of(version.getVersion(), version.getBookCount(), version.getBookIds(), version.getBookVersions());
+    }
+
+    // True when an If-None-Match header lists the ETag (weak comparison)
+    static boolean noneMatchHit(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // True when an If-Match header lists the ETag (strong comparison)
+    static boolean matchHit(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
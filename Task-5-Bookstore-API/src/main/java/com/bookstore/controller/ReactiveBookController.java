@@ -0,0 +1,76 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.BookResponseDTO;
+import com.bookstore.service.ReactiveBookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.math.BigDecimal;
+
+/**
+ * Reactive Book Controller
+ *
+ * Read-only book endpoints on the R2DBC stack, parallel to BookController.
+ * Spring MVC subscribes to the returned Flux / Mono and completes the request
+ * asynchronously. A Flux is written as a JSON array by default; with
+ * Accept: application/x-ndjson it is streamed one book per line, and the
+ * next row is only requested once the previous line was written
+ * (backpressure), so large results never sit in memory.
+ */
+@RestController
+@RequestMapping("/api/reactive/books")
+public class ReactiveBookController {
+
+    @Autowired
+    private ReactiveBookService reactiveBookService;
+
+    // Get all books (JSON array, or NDJSON stream)
+    @GetMapping
+    public Flux<BookResponseDTO> getAllBooks() {
+        return reactiveBookService.getAllBooks();
+    }
+
+    // Get book by ID
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BookResponseDTO>> getBookById(@PathVariable Long id) {
+        return reactiveBookService.getBookById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Get book by ISBN
+    @GetMapping("/isbn/{isbn}")
+    public Mono<ResponseEntity<BookResponseDTO>> getBookByIsbn(@PathVariable String isbn) {
+        return reactiveBookService.getBookByIsbn(isbn)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Get books by genre (JSON array, or NDJSON stream)
+    @GetMapping("/genre/{genre}")
+    public Flux<BookResponseDTO> getBooksByGenre(@PathVariable String genre) {
+        return reactiveBookService.getBooksByGenre(genre);
+    }
+
+    // Filter books with multiple criteria, one page without totals (JSON array, or NDJSON stream)
+    @GetMapping("/filter")
+    public ResponseEntity<Flux<BookResponseDTO>> filterBooks(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String authorName,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        try {
+            return ResponseEntity.ok(reactiveBookService.filterBooks(
+                    title, genre, authorName, minPrice, maxPrice, page, size, sortBy, sortDir));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
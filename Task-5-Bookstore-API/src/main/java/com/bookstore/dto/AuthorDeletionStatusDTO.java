@@ -0,0 +1,35 @@
+package com.bookstore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Author Deletion Status DTO
+ *
+ * Progress of an asynchronous (chunked) author deletion.
+ * Every chunk of deletedBooks is committed; the author row goes with the last chunk.
+ * totalBooks is counted when the job starts, books added in the meantime are deleted too.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorDeletionStatusDTO {
+
+    private String id;
+    private Long authorId;
+    private State state;
+    private long totalBooks;
+    private long deletedBooks;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
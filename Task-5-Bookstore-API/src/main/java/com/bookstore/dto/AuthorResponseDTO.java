@@ -7,6 +7,9 @@ import java.util.List;
 
 /**
  * Author Response DTO
+ * 
+ * A single author carries all of their books. In listings books holds only the first few
+ * (bookstore.authors.listing-books), bookCount has the total and GET /api/authors/{id}/books pages the rest.
  */
 @Data
 @NoArgsConstructor
@@ -14,9 +17,11 @@ import java.util.List;
 public class AuthorResponseDTO {
     
     private Long id;
+    private Long version;
     private String name;
     private String biography;
     private String email;
+    private long bookCount;
     private List<BookDTO> books;
     
     @Data
@@ -24,6 +29,7 @@ public class AuthorResponseDTO {
     @AllArgsConstructor
     public static class BookDTO {
         private Long id;
+        private Long version;
         private String title;
         private String isbn;
     }
@@ -21,6 +21,7 @@ import java.time.LocalDate;
 public class BookResponseDTO {
     
     private Long id;
+    private Long version;
     private String title;
     private String isbn;
     private String description;
@@ -36,6 +37,7 @@ public class BookResponseDTO {
     @AllArgsConstructor
     public static class AuthorDTO {
         private Long id;
+        private Long version;
         private String name;
         private String email;
     }
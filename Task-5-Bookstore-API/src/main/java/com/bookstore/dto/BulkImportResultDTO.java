@@ -0,0 +1,38 @@
+package com.bookstore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk Import Result DTO
+ * 
+ * Outcome of a bulk book import: counts plus one error per rejected item.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResultDTO {
+    
+    private int received;
+    private int created;
+    private int failed;
+    private List<ItemError> errors = new ArrayList<>();
+    
+    // Record a rejected item (index is its 0-based position in the request)
+    public void addError(int index, String isbn, String message) {
+        failed++;
+        errors.add(new ItemError(index, isbn, message));
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+        private int index;
+        private String isbn;
+        private String message;
+    }
+}
@@ -0,0 +1,37 @@
+package com.bookstore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Catalog Change DTO
+ *
+ * One entry of the change feed (GET /api/changes, /api/changes/stream).
+ * offset increases in commit order; pass the last one seen as after (or Last-Event-ID) to resume.
+ * Only ids are carried: consumers re-read or evict the entity.
+ * An author update also changes the author data embedded in all of their books.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangeDTO {
+
+    private long offset;
+    private EntityType entityType;
+    private Long entityId;
+    private ChangeType changeType;
+    private LocalDateTime changedAt;
+
+    public enum EntityType {
+        BOOK,
+        AUTHOR
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,37 @@
+package com.bookstore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog Stats DTO
+ *
+ * Catalog totals plus per-genre and per-publisher aggregates.
+ * Books without a genre or publisher are grouped under a null name.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStatsDTO {
+
+    private long bookCount;
+    private long totalStock;
+    private List<GroupStats> byGenre = new ArrayList<>();
+    private List<GroupStats> byPublisher = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GroupStats {
+        private String name;
+        private long bookCount;
+        private long totalStock;
+        private BigDecimal averagePrice;
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bookstore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cursor Page Response DTO
+ *
+ * One page of a keyset (cursor) paginated listing.
+ * Pass nextCursor back as the cursor parameter to read the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponseDTO<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    // Convert the page content, keeping the paging information
+    public <R> CursorPageResponseDTO<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        return new CursorPageResponseDTO<>(mapped, size, hasNext, nextCursor);
+    }
+}
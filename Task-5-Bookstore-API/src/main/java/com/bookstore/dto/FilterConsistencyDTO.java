@@ -0,0 +1,24 @@
+package com.bookstore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Filter Consistency DTO
+ * 
+ * Result of evaluating one filter both with the columnar filter index and in the database.
+ * missing: matched by the database only; unexpected: matched by the index only (first ids of each).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilterConsistencyDTO {
+    
+    private int databaseMatches;
+    private int indexMatches;
+    private List<Long> missing;
+    private List<Long> unexpected;
+    private boolean consistent;
+}
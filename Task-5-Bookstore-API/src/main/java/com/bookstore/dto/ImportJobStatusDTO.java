@@ -0,0 +1,41 @@
+package com.bookstore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Import Job Status DTO
+ *
+ * Progress of an asynchronous CSV import.
+ * Everything up to processedBytes / processedRows is committed (the resume checkpoint);
+ * error indexes are 0-based data rows of the file (the header is not counted).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobStatusDTO {
+
+    private String id;
+    private State state;
+    private long totalBytes;
+    private long processedBytes;
+    private double progress;
+    private int processedRows;
+    private int created;
+    private int failed;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<BulkImportResultDTO.ItemError> errors = new ArrayList<>();
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
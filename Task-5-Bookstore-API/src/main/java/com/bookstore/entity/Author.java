@@ -1,9 +1,12 @@
 package com.bookstore.entity;
 
+import com.bookstore.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,18 +21,27 @@ import java.util.List;
  * - Lombok annotations (@Data, @NoArgsConstructor, @AllArgsConstructor)
  * - One-to-Many relationship with Book
  * - Cascade operations (orphanRemoval)
+ * - Second-level cached, including the book list (see HibernateCacheConfig)
  */
 @Entity
 @Table(name = "authors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.AUTHORS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Author {
     
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+    @SequenceGenerator(name = "author_seq", sequenceName = "author_seq", allocationSize = 50)
     private Long id;
     
+    // Optimistic locking version, also the source of the HTTP ETag
+    @Version
+    private Long version;
+    
     @Column(nullable = false)
     private String name;
     
@@ -42,6 +54,8 @@ public class Author {
     // One-to-Many relationship: One author can write many books
     // cascade = CascadeType.ALL means operations on Author cascade to Books
     // orphanRemoval = true removes books when removed from author's book list
+    // The cached collection holds book ids; it is evicted when a book changes author (auto_evict_collection_cache)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.AUTHOR_BOOKS)
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Book> books = new ArrayList<>();
     
@@ -1,9 +1,12 @@
 package com.bookstore.entity;
 
+import com.bookstore.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -18,18 +21,27 @@ import java.time.LocalDate;
  * - Many-to-One relationship with Author
  * - Various data types (String, BigDecimal, LocalDate)
  * - Column constraints (@Column)
+ * - Second-level cached (see HibernateCacheConfig)
  */
 @Entity
 @Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.BOOKS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Book {
     
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
     
+    // Optimistic locking version, also the source of the HTTP ETag
+    @Version
+    private Long version;
+    
     @Column(nullable = false)
     private String title;
     
@@ -0,0 +1,34 @@
+package com.bookstore.event;
+
+import com.bookstore.entity.Author;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Author Changed Event
+ * 
+ * Published by the service layer whenever an author is created, updated or deleted.
+ * In-memory read models that keep author data next to books (e.g. the author name)
+ * listen for it after the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthorChangedEvent {
+    
+    private final Long authorId;
+    
+    // Saved state of the author, or null when the author was deleted
+    private final Author author;
+    
+    // True when the author was created (false for updates and deletions)
+    private final boolean created;
+    
+    // Update (saved state) or deletion (null)
+    public AuthorChangedEvent(Long authorId, Author author) {
+        this(authorId, author, false);
+    }
+    
+    public boolean isDeleted() {
+        return author == null;
+    }
+}
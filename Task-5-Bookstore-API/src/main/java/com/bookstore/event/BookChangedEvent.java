@@ -0,0 +1,37 @@
+package com.bookstore.event;
+
+import com.bookstore.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Book Changed Event
+ * 
+ * Published by the service layer whenever a book is created, updated or deleted.
+ * In-memory read models listen for it after the transaction commits.
+ * 
+ * Key Concepts:
+ * - Spring application events
+ * - @TransactionalEventListener (AFTER_COMMIT)
+ */
+@Getter
+@AllArgsConstructor
+public class BookChangedEvent {
+    
+    private final Long bookId;
+    
+    // Saved state of the book, or null when the book was deleted
+    private final Book book;
+    
+    // True when the book was created (false for updates and deletions)
+    private final boolean created;
+    
+    // Update (saved state) or deletion (null)
+    public BookChangedEvent(Long bookId, Book book) {
+        this(bookId, book, false);
+    }
+    
+    public boolean isDeleted() {
+        return book == null;
+    }
+}
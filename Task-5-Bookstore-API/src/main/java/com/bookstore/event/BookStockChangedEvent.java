@@ -0,0 +1,24 @@
+package com.bookstore.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Book Stock Changed Event
+ * 
+ * Published when stock is reserved or released with a conditional UPDATE,
+ * which changes only the quantity (and bumps the version) and does not load the book.
+ * In-memory read models listen for it after the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class BookStockChangedEvent {
+    
+    private final Long bookId;
+    
+    // Quantity after the update
+    private final Integer quantity;
+    
+    // Version written by the update, to order it against other states of the book
+    private final Long version;
+}
@@ -0,0 +1,73 @@
+package com.bookstore.mapper;
+
+import com.bookstore.dto.AuthorRequestDTO;
+import com.bookstore.dto.AuthorResponseDTO;
+import com.bookstore.entity.Author;
+import com.bookstore.repository.BookRepository;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Author Mapper
+ * 
+ * Converts between Author entities and Author DTOs.
+ */
+@Component
+public class AuthorMapper {
+    
+    // Copy AuthorRequestDTO fields onto an Author entity (new or existing)
+    public Author updateEntity(Author author, AuthorRequestDTO dto) {
+        author.setName(dto.getName());
+        author.setBiography(dto.getBiography());
+        author.setEmail(dto.getEmail());
+        return author;
+    }
+    
+    // Map Author entity to AuthorResponseDTO (with all of the author's books)
+    public AuthorResponseDTO toResponseDTO(Author author) {
+        AuthorResponseDTO dto = toDTO(author);
+        if (author.getBooks() != null) {
+            dto.setBookCount(author.getBooks().size());
+            dto.setBooks(author.getBooks().stream()
+                    .map(book -> {
+                        AuthorResponseDTO.BookDTO bookDTO = new AuthorResponseDTO.BookDTO();
+                        bookDTO.setId(book.getId());
+                        bookDTO.setVersion(book.getVersion());
+                        bookDTO.setTitle(book.getTitle());
+                        bookDTO.setIsbn(book.getIsbn());
+                        return bookDTO;
+                    })
+                    .collect(Collectors.toList()));
+        }
+        
+        return dto;
+    }
+    
+    // Map Author entity to a listing AuthorResponseDTO with the author's first books
+    // (rows of BookRepository.findFirstBooksByAuthorIds), without touching author.getBooks()
+    public AuthorResponseDTO toListingDTO(Author author, List<BookRepository.AuthorBookRow> firstBooks) {
+        AuthorResponseDTO dto = toDTO(author);
+        dto.setBookCount(firstBooks.isEmpty() ? 0 : firstBooks.get(0).getBookCount());
+        dto.setBooks(firstBooks.stream()
+                .map(row -> new AuthorResponseDTO.BookDTO(row.getId(), row.getVersion(), row.getTitle(), row.getIsbn()))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+    
+    // Map a book of an author's book list
+    public AuthorResponseDTO.BookDTO toBookDTO(BookRepository.BookSummary book) {
+        return new AuthorResponseDTO.BookDTO(book.getId(), book.getVersion(), book.getTitle(), book.getIsbn());
+    }
+    
+    // Helper: The author's own fields
+    private AuthorResponseDTO toDTO(Author author) {
+        AuthorResponseDTO dto = new AuthorResponseDTO();
+        dto.setId(author.getId());
+        dto.setVersion(author.getVersion());
+        dto.setName(author.getName());
+        dto.setBiography(author.getBiography());
+        dto.setEmail(author.getEmail());
+        return dto;
+    }
+}
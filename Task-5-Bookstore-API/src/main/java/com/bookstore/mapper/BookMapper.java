@@ -0,0 +1,56 @@
+package com.bookstore.mapper;
+
+import com.bookstore.dto.BookRequestDTO;
+import com.bookstore.dto.BookResponseDTO;
+import com.bookstore.entity.Book;
+import org.springframework.stereotype.Component;
+
+/**
+ * Book Mapper
+ * 
+ * Converts between Book entities and Book DTOs.
+ * Shared by the controller and the service layer (cached lookups).
+ */
+@Component
+public class BookMapper {
+    
+    // Map BookRequestDTO to Book entity
+    public Book toEntity(BookRequestDTO dto) {
+        Book book = new Book();
+        book.setTitle(dto.getTitle());
+        book.setIsbn(dto.getIsbn());
+        book.setDescription(dto.getDescription());
+        book.setPrice(dto.getPrice());
+        book.setQuantity(dto.getQuantity());
+        book.setPublishedDate(dto.getPublishedDate());
+        book.setGenre(dto.getGenre());
+        book.setPublisher(dto.getPublisher());
+        return book;
+    }
+    
+    // Map Book entity to BookResponseDTO
+    public BookResponseDTO toResponseDTO(Book book) {
+        BookResponseDTO dto = new BookResponseDTO();
+        dto.setId(book.getId());
+        dto.setVersion(book.getVersion());
+        dto.setTitle(book.getTitle());
+        dto.setIsbn(book.getIsbn());
+        dto.setDescription(book.getDescription());
+        dto.setPrice(book.getPrice());
+        dto.setQuantity(book.getQuantity());
+        dto.setPublishedDate(book.getPublishedDate());
+        dto.setGenre(book.getGenre());
+        dto.setPublisher(book.getPublisher());
+        
+        if (book.getAuthor() != null) {
+            BookResponseDTO.AuthorDTO authorDTO = new BookResponseDTO.AuthorDTO();
+            authorDTO.setId(book.getAuthor().getId());
+            authorDTO.setVersion(book.getAuthor().getVersion());
+            authorDTO.setName(book.getAuthor().getName());
+            authorDTO.setEmail(book.getAuthor().getEmail());
+            dto.setAuthor(authorDTO);
+        }
+        
+        return dto;
+    }
+}
@@ -2,16 +2,24 @@ package com.bookstore.repository;
 
 import com.bookstore.entity.Author;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
 import java.util.List;
 
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
 /**
  * Author Repository
  * 
  * Provides database operations for Author entity.
- * Extends JpaRepository for basic CRUD operations.
+ * Extends JpaRepository for basic CRUD and JpaSpecificationExecutor for keyset paging.
  * 
  * Key Concepts:
  * - Spring Data JPA
@@ -19,7 +27,7 @@ import java.util.List;
  * - @Query annotation for custom JPQL
  */
 @Repository
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+public interface AuthorRepository extends JpaRepository<Author, Long>, JpaSpecificationExecutor<Author> {
     
     // Find author by email
     Optional<Author> findByEmail(String email);
@@ -33,4 +41,36 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     
     // Check if author exists by email
     boolean existsByEmail(String email);
+    
+    // Look up only the versions an author ETag is built from (conditional GET without loading the books):
+    // the author's own and an aggregate over the listed books, which changes with every book write
+    @Query("SELECT a.version AS version, COUNT(b.id) AS bookCount, COALESCE(SUM(b.id), 0) AS bookIds, "
+            + "COALESCE(SUM(b.version), 0) AS bookVersions "
+            + "FROM Author a LEFT JOIN a.books b WHERE a.id = :id GROUP BY a.id, a.version")
+    Optional<AuthorVersion> findVersionById(@Param("id") Long id);
+    
+    // Delete an author row without loading it or its books, which must be deleted first
+    // (set-based author deletion; AuthorService evicts the author after commit)
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = BookRepository.DELETE_QUERY_SPACE))
+    @Query(value = "DELETE FROM authors WHERE id = :id", nativeQuery = true)
+    int deleteRowById(@Param("id") Long id);
+    
+    // Ids and names of all authors (warms the author lookup of a CSV import)
+    @Query("SELECT a.id AS id, a.name AS name FROM Author a")
+    List<AuthorName> findAllNames();
+    
+    // Projection: author id and name only
+    interface AuthorName {
+        Long getId();
+        String getName();
+    }
+    
+    // Projection: the parts of an author ETag
+    interface AuthorVersion {
+        Long getVersion();
+        Long getBookCount();
+        Long getBookIds();
+        Long getBookVersions();
+    }
 }
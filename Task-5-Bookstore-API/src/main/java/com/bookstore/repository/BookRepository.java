@@ -3,14 +3,29 @@ package com.bookstore.repository;
 import com.bookstore.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Book Repository
@@ -23,39 +38,248 @@ import java.util.Optional;
  * - Pagination support (Pageable)
  * - Custom queries with JPQL
  * - Specification pattern for filtering
+ * - @EntityGraph to fetch the author in the same query (avoids N+1 selects)
+ * - Query cache for the genre and publisher finders (see HibernateCacheConfig)
  */
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
     
+    // Every finder below fetches the LAZY author with a join, because the
+    // controllers always map book.getAuthor() into the response DTO.
+    
+    // Find book by ID (with author)
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Optional<Book> findById(Long id);
+    
+    // Find all books (with author)
+    @Override
+    @EntityGraph(attributePaths = "author")
+    List<Book> findAll();
+    
+    // Find books by IDs (with author)
+    @Override
+    @EntityGraph(attributePaths = "author")
+    List<Book> findAllById(Iterable<Long> ids);
+    
+    // Find all books sorted (with author)
+    @Override
+    @EntityGraph(attributePaths = "author")
+    List<Book> findAll(Sort sort);
+    
     // Find book by ISBN
+    @EntityGraph(attributePaths = "author")
     Optional<Book> findByIsbn(String isbn);
     
     // Find books by title containing (case-insensitive)
+    @EntityGraph(attributePaths = "author")
     List<Book> findByTitleContainingIgnoreCase(String title);
     
-    // Find books by genre
+    // Find books by genre (query cache: the selected rows, invalidated by any write to books or authors)
+    @EntityGraph(attributePaths = "author")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Book> findByGenre(String genre);
     
     // Find books by author ID
+    @EntityGraph(attributePaths = "author")
     List<Book> findByAuthorId(Long authorId);
     
     // Find books by price range
+    @EntityGraph(attributePaths = "author")
     List<Book> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
     
-    // Find books by publisher
+    // Find books by publisher (query cache: the selected rows, invalidated by any write to books or authors)
+    @EntityGraph(attributePaths = "author")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Book> findByPublisher(String publisher);
     
     // Custom JPQL query - Find books by author name
+    @EntityGraph(attributePaths = "author")
     @Query("SELECT b FROM Book b WHERE b.author.name = :authorName")
     List<Book> findBooksByAuthorName(@Param("authorName") String authorName);
     
     // Custom JPQL query - Find expensive books
+    @EntityGraph(attributePaths = "author")
     @Query("SELECT b FROM Book b WHERE b.price > :price ORDER BY b.price DESC")
     List<Book> findExpensiveBooks(@Param("price") BigDecimal price);
     
     // Pagination - Get all books with pagination
+    @Override
+    @EntityGraph(attributePaths = "author")
     Page<Book> findAll(Pageable pageable);
     
+    // Filtering + Pagination - Get books matching a Specification
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Book> findAll(Specification<Book> spec, Pageable pageable);
+    
+    // Streaming - Scroll through every book (with author) in fetch-size chunks.
+    // Must be consumed inside a transaction and closed afterwards.
+    // Note: MySQL Connector/J only streams with useCursorFetch=true on the JDBC URL.
+    @EntityGraph(attributePaths = "author")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAll();
+    
+    // Rows fetched per JDBC round trip when streaming
+    int STREAM_FETCH_SIZE = 500;
+    
+    // Look up only the stored ISBN of a book (cache eviction on update and on stock changes)
+    @Query("SELECT b.isbn AS isbn FROM Book b WHERE b.id = :id")
+    Optional<StoredKeys> findStoredKeysById(@Param("id") Long id);
+    
+    // Look up the stored ISBN, quantity and version right after a stock statement (same transaction)
+    @Query("SELECT b.isbn AS isbn, b.quantity AS quantity, b.version AS version FROM Book b WHERE b.id = :id")
+    Optional<StockRow> findStockById(@Param("id") Long id);
+    
+    // Look up only the versions a book ETag is built from (conditional GET without loading the row):
+    // the book's own and the embedded author's
+    @Query("SELECT b.version AS version, a.version AS authorVersion FROM Book b LEFT JOIN b.author a WHERE b.id = :id")
+    Optional<BookVersion> findVersionById(@Param("id") Long id);
+    
+    // Look up only the versions of a book by ISBN
+    @Query("SELECT b.version AS version, a.version AS authorVersion FROM Book b LEFT JOIN b.author a "
+            + "WHERE b.isbn = :isbn")
+    Optional<BookVersion> findVersionByIsbn(@Param("isbn") String isbn);
+    
+    // Take stock in one conditional statement (no read-modify-write); 0 rows when too few are left
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE books SET quantity = quantity - :amount, version = version + 1 "
+            + "WHERE id = :id AND quantity >= :amount", nativeQuery = true)
+    int reserveStock(@Param("id") Long id, @Param("amount") int amount);
+    
+    // Put stock back in one statement; 0 rows when the book does not exist
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    @Query(value = "UPDATE books SET quantity = COALESCE(quantity, 0) + :amount, version = version + 1 "
+            + "WHERE id = :id", nativeQuery = true)
+    int releaseStock(@Param("id") Long id, @Param("amount") int amount);
+    
+    // Query space of the stock statements. A JPQL (or unsynchronized native) update makes Hibernate
+    // drop the whole book cache region; these leave it alone and BookService evicts the one book after commit.
+    String STOCK_QUERY_SPACE = "book_stock";
+    
+    // Ids of an author's books, lowest first (set-based author deletion, a chunk at a time with a page)
+    @Query("SELECT b.id FROM Book b WHERE b.author.id = :authorId ORDER BY b.id")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+    
+    // Book count and first (lowest id) books of each given author in one query (author listings).
+    // Authors without books have no row.
+    @Query(value = "SELECT author_id AS authorId, id, version, title, isbn, book_count AS bookCount FROM ("
+            + "SELECT b.author_id, b.id, b.version, b.title, b.isbn, "
+            + "ROW_NUMBER() OVER (PARTITION BY b.author_id ORDER BY b.id) AS position, "
+            + "COUNT(*) OVER (PARTITION BY b.author_id) AS book_count "
+            + "FROM books b WHERE b.author_id IN (:authorIds)) first_books "
+            + "WHERE position <= :limit ORDER BY author_id, id", nativeQuery = true)
+    List<AuthorBookRow> findFirstBooksByAuthorIds(@Param("authorIds") Collection<Long> authorIds,
+                                                  @Param("limit") int limit);
+    
+    // Id, version, title and ISBN of an author's books, one page at a time
+    @Query(value = "SELECT b.id AS id, b.version AS version, b.title AS title, b.isbn AS isbn "
+            + "FROM Book b WHERE b.author.id = :authorId",
+            countQuery = "SELECT COUNT(b) FROM Book b WHERE b.author.id = :authorId")
+    Page<BookSummary> findSummariesByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+    
+    // Count an author's books (progress of a chunked author deletion)
+    long countByAuthorId(Long authorId);
+    
+    // Delete books of an author in one statement, without loading them (set-based author deletion).
+    // The author_id condition lets the database use the foreign key index (H2 scans the table for a long IN list).
+    // Native with its own query space like the stock statements; AuthorService evicts the rows after commit.
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = DELETE_QUERY_SPACE))
+    @Query(value = "DELETE FROM books WHERE author_id = :authorId AND id IN (:ids)", nativeQuery = true)
+    int deleteAllByAuthorIdAndIdIn(@Param("authorId") Long authorId, @Param("ids") Collection<Long> ids);
+    
+    // Query space of the set-based deletes (matches no entity table)
+    String DELETE_QUERY_SPACE = "bulk_delete";
+    
+    // Look up only id and price of every priced book (rebuilds BookPriceIndex)
+    @Query("SELECT b.id AS id, b.price AS price, b.version AS version FROM Book b WHERE b.price IS NOT NULL")
+    List<PriceRow> findAllPrices();
+    
+    // Look up only the aggregated columns of every book (rebuilds BookCatalogStats)
+    @Query("SELECT b.id AS id, b.genre AS genre, b.publisher AS publisher, b.quantity AS quantity, b.price AS price, "
+            + "b.version AS version FROM Book b")
+    List<StatsRow> findAllStatsRows();
+    
+    // Look up only the filterable columns of every book (rebuilds BookFilterIndex)
+    @Query("SELECT b.id AS id, b.title AS title, b.genre AS genre, b.price AS price, b.version AS version, "
+            + "a.id AS authorId, a.name AS authorName FROM Book b LEFT JOIN b.author a")
+    List<FilterRow> findAllFilterRows();
+    
+    // Which of the given ISBNs are already taken (one query for a whole bulk chunk)
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+    
     // Check if book exists by ISBN
     boolean existsByIsbn(String isbn);
+    
+    // Projection of the columns read before an update
+    interface StoredKeys {
+        String getIsbn();
+    }
+    
+    // Projection of a book's stock as written by a stock statement
+    interface StockRow {
+        String getIsbn();
+        Integer getQuantity();
+        Long getVersion();
+    }
+    
+    // Projection of the parts of a book ETag
+    interface BookVersion {
+        Long getVersion();
+        Long getAuthorVersion();
+    }
+    
+    // Projection of a book in an author listing, with the author's total book count
+    interface AuthorBookRow {
+        Long getAuthorId();
+        Long getId();
+        Long getVersion();
+        String getTitle();
+        String getIsbn();
+        Long getBookCount();
+    }
+    
+    // Projection of a book in an author's book list
+    interface BookSummary {
+        Long getId();
+        Long getVersion();
+        String getTitle();
+        String getIsbn();
+    }
+    
+    // Projection of the columns kept in the price index
+    interface PriceRow {
+        Long getId();
+        BigDecimal getPrice();
+        Long getVersion();
+    }
+    
+    // Projection of the columns kept in the columnar filter index
+    interface FilterRow {
+        Long getId();
+        String getTitle();
+        String getGenre();
+        BigDecimal getPrice();
+        Long getVersion();
+        Long getAuthorId();
+        String getAuthorName();
+    }
+    
+    // Projection of the columns aggregated by the catalog statistics
+    interface StatsRow {
+        Long getId();
+        String getGenre();
+        String getPublisher();
+        Integer getQuantity();
+        BigDecimal getPrice();
+        Long getVersion();
+    }
 }
@@ -0,0 +1,93 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.CatalogChangeDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Catalog Change Repository
+ *
+ * JDBC access to the catalog_changes outbox table (no JPA entity: rows are written
+ * in batches and read as a log, never updated).
+ *
+ * Key Concepts:
+ * - JdbcTemplate on the JPA transaction's connection (same commit as the change)
+ * - Batched inserts; the identity column assigns the offsets
+ * - Range reads by offset, bounded by a limit
+ * - Changes that committed late are moved to a new offset in one transaction (never updated in place)
+ */
+@Repository
+public class CatalogChangeRepository {
+
+    private static final String SELECT_CHANGES =
+            "SELECT id, entity_type, entity_id, change_type, changed_at FROM catalog_changes";
+
+    private static final RowMapper<CatalogChangeDTO> ROW_MAPPER = (rs, rowNum) -> new CatalogChangeDTO(
+            rs.getLong("id"),
+            CatalogChangeDTO.EntityType.valueOf(rs.getString("entity_type")),
+            rs.getLong("entity_id"),
+            CatalogChangeDTO.ChangeType.valueOf(rs.getString("change_type")),
+            rs.getTimestamp("changed_at").toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Insert changes in one batch (their offsets are assigned by the database)
+    public void insertAll(List<CatalogChangeDTO> changes) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO catalog_changes (entity_type, entity_id, change_type, changed_at) VALUES (?, ?, ?, ?)",
+                changes, changes.size(), (ps, change) -> {
+                    ps.setString(1, change.getEntityType().name());
+                    ps.setLong(2, change.getEntityId());
+                    ps.setString(3, change.getChangeType().name());
+                    ps.setTimestamp(4, Timestamp.valueOf(change.getChangedAt()));
+                });
+    }
+
+    // Find up to limit changes with after < offset <= upTo, oldest first
+    public List<CatalogChangeDTO> findAfter(long after, long upTo, int limit) {
+        return jdbcTemplate.query(SELECT_CHANGES + " WHERE id > ? AND id <= ? ORDER BY id LIMIT ?",
+                ROW_MAPPER, after, upTo, limit);
+    }
+
+    // Find up to limit offsets with from <= offset < to that exist (committed late, after the change feed skipped them)
+    public List<Long> findOffsetsBetween(long from, long to, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM catalog_changes WHERE id >= ? AND id < ? ORDER BY id LIMIT ?",
+                Long.class, from, to, limit);
+    }
+
+    // Copy a change to a new offset at the end of the log and remove it from the old one, in one transaction
+    public void moveToEnd(long offset) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO catalog_changes (entity_type, entity_id, change_type, changed_at) "
+                    + "SELECT entity_type, entity_id, change_type, changed_at FROM catalog_changes WHERE id = ?", offset);
+            jdbcTemplate.update("DELETE FROM catalog_changes WHERE id = ?", offset);
+        });
+    }
+
+    // Highest offset written so far
+    public Optional<Long> findMaxOffset() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("SELECT MAX(id) FROM catalog_changes", Long.class));
+    }
+
+    // Lowest offset still kept (older ones were removed by retention)
+    public Optional<Long> findMinOffset() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("SELECT MIN(id) FROM catalog_changes", Long.class));
+    }
+
+    // Remove changes older than the given time
+    public int deleteOlderThan(LocalDateTime time) {
+        return jdbcTemplate.update("DELETE FROM catalog_changes WHERE changed_at < ?", Timestamp.valueOf(time));
+    }
+}
@@ -0,0 +1,130 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.BookResponseDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reactive Book Repository
+ *
+ * Read-only book queries over R2DBC, mapped straight to BookResponseDTO.
+ * Rows are emitted as the driver reads them, so callers can stream them.
+ *
+ * Key Concepts:
+ * - DatabaseClient with named bind parameters
+ * - One LEFT JOIN per query for the author (no lazy loading outside JPA)
+ * - Flux / Mono results (non-blocking when the driver is)
+ */
+@Repository
+public class ReactiveBookRepository {
+
+    private static final String SELECT_BOOKS =
+            "SELECT b.id, b.version, b.title, b.isbn, b.description, b.price, b.quantity, b.published_date, "
+            + "b.genre, b.publisher, a.id AS author_id, a.version AS author_version, "
+            + "a.name AS author_name, a.email AS author_email "
+            + "FROM books b LEFT JOIN authors a ON a.id = b.author_id";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // Find all books, ordered by id
+    public Flux<BookResponseDTO> findAll() {
+        return databaseClient.sql(SELECT_BOOKS + " ORDER BY b.id")
+                .map(ReactiveBookRepository::toResponseDTO)
+                .all();
+    }
+
+    // Find book by ID
+    public Mono<BookResponseDTO> findById(Long id) {
+        return databaseClient.sql(SELECT_BOOKS + " WHERE b.id = :id")
+                .bind("id", id)
+                .map(ReactiveBookRepository::toResponseDTO)
+                .one();
+    }
+
+    // Find book by ISBN
+    public Mono<BookResponseDTO> findByIsbn(String isbn) {
+        return databaseClient.sql(SELECT_BOOKS + " WHERE b.isbn = :isbn")
+                .bind("isbn", isbn)
+                .map(ReactiveBookRepository::toResponseDTO)
+                .one();
+    }
+
+    // Find books by genre, ordered by id
+    public Flux<BookResponseDTO> findByGenre(String genre) {
+        return databaseClient.sql(SELECT_BOOKS + " WHERE b.genre = :genre ORDER BY b.id")
+                .bind("genre", genre)
+                .map(ReactiveBookRepository::toResponseDTO)
+                .all();
+    }
+
+    // Filter books (every criterion optional), one page without a COUNT query.
+    // orderBy must be a trusted column expression, e.g. "b.price DESC".
+    public Flux<BookResponseDTO> filter(String title, String genre, String authorName,
+                                       BigDecimal minPrice, BigDecimal maxPrice,
+                                       String orderBy, long offset, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder where = new StringBuilder();
+        if (title != null && !title.isEmpty()) {
+            where.append(" AND LOWER(b.title) LIKE :title");
+            params.put("title", "%" + title.toLowerCase() + "%");
+        }
+        if (genre != null && !genre.isEmpty()) {
+            where.append(" AND b.genre = :genre");
+            params.put("genre", genre);
+        }
+        if (authorName != null && !authorName.isEmpty()) {
+            where.append(" AND LOWER(a.name) LIKE :authorName");
+            params.put("authorName", "%" + authorName.toLowerCase() + "%");
+        }
+        if (minPrice != null) {
+            where.append(" AND b.price >= :minPrice");
+            params.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            where.append(" AND b.price <= :maxPrice");
+            params.put("maxPrice", maxPrice);
+        }
+        String sql = SELECT_BOOKS
+                + (where.length() > 0 ? " WHERE" + where.substring(4) : "")
+                + " ORDER BY " + orderBy + " LIMIT :limit OFFSET :offset";
+        params.put("limit", limit);
+        params.put("offset", offset);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec.map(ReactiveBookRepository::toResponseDTO).all();
+    }
+
+    // Helper: Map one joined row
+    private static BookResponseDTO toResponseDTO(Readable row) {
+        Long authorId = row.get("author_id", Long.class);
+        BookResponseDTO.AuthorDTO author = authorId == null
+                ? null
+                : new BookResponseDTO.AuthorDTO(authorId, row.get("author_version", Long.class),
+                        row.get("author_name", String.class), row.get("author_email", String.class));
+        return new BookResponseDTO(
+                row.get("id", Long.class),
+                row.get("version", Long.class),
+                row.get("title", String.class),
+                row.get("isbn", String.class),
+                row.get("description", String.class),
+                row.get("price", BigDecimal.class),
+                row.get("quantity", Integer.class),
+                row.get("published_date", LocalDate.class),
+                row.get("genre", String.class),
+                row.get("publisher", String.class),
+                author);
+    }
+}
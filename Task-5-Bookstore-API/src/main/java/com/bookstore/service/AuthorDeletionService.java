@@ -0,0 +1,169 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.AuthorDeletionStatusDTO;
+import com.bookstore.repository.BookRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Author Deletion Service
+ *
+ * Asynchronous deletion of authors with many books.
+ * AuthorService.deleteAuthor removes an author in one transaction, which holds the row locks
+ * of every book until it commits. Here the books are deleted bookstore.author-delete.chunk-size
+ * at a time, each chunk in its own short transaction (AuthorService.deleteBooksOfAuthor),
+ * and the author row goes last together with any books added in the meantime.
+ *
+ * Key Concepts:
+ * - Short transactions instead of one long one (locks held per chunk only)
+ * - Caches, search indexes and read models updated after every chunk's commit
+ * - Jobs run one at a time; status kept in memory
+ * - One pending job per author (keyed by author id); finished jobs are forgotten
+ *   bookstore.author-delete.retention after they end
+ * - A failed job leaves the committed chunks deleted; deleting the author again finishes it
+ */
+@Service
+public class AuthorDeletionService implements DisposableBean {
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final int chunkSize;
+    private final Duration retention;
+    private final ExecutorService executor;
+    private final Map<String, DeletionJob> jobs = new ConcurrentHashMap<>();
+    // Jobs not finished yet, by author id
+    private final Map<Long, DeletionJob> pending = new ConcurrentHashMap<>();
+
+    public AuthorDeletionService(@Value("${bookstore.author-delete.chunk-size}") int chunkSize,
+                                 @Value("${bookstore.author-delete.retention}") Duration retention) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("bookstore.author-delete.chunk-size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+        this.retention = retention;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "author-delete");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Queue the deletion of an author; a deletion of the same author that has not finished is returned instead
+    public AuthorDeletionStatusDTO startDeletion(Long authorId) {
+        expireFinishedJobs();
+        DeletionJob job = new DeletionJob(UUID.randomUUID().toString(), authorId);
+        DeletionJob existing = pending.putIfAbsent(authorId, job);
+        if (existing != null) {
+            return existing.toStatus();
+        }
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job));
+        return job.toStatus();
+    }
+
+    // Get the status of a deletion
+    public Optional<AuthorDeletionStatusDTO> getDeletion(String id) {
+        expireFinishedJobs();
+        return Optional.ofNullable(jobs.get(id)).map(DeletionJob::toStatus);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    // Delete the books chunk by chunk, then the author with whatever is left
+    private void run(DeletionJob job) {
+        String failure = null;
+        try {
+            job.started(bookRepository.countByAuthorId(job.authorId));
+            int deleted;
+            while (failure == null && (deleted = authorService.deleteBooksOfAuthor(job.authorId, chunkSize)) > 0) {
+                job.deleted(deleted);
+                if (Thread.currentThread().isInterrupted()) {
+                    failure = "Interrupted";
+                }
+            }
+            if (failure == null) {
+                job.deleted(authorService.deleteAuthor(job.authorId));
+            }
+        } catch (RuntimeException e) {
+            failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        // Before the job shows as finished, so deleting the author again then starts a new job
+        pending.remove(job.authorId, job);
+        if (failure == null) {
+            job.completed();
+        } else {
+            job.failed(failure);
+        }
+    }
+
+    // Helper: Forget jobs that finished more than the retention ago
+    private void expireFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedBefore(cutoff));
+    }
+
+    // State of one deletion
+    private static final class DeletionJob {
+        private final String id;
+        private final Long authorId;
+        private AuthorDeletionStatusDTO.State state = AuthorDeletionStatusDTO.State.QUEUED;
+        private long totalBooks;
+        private long deletedBooks;
+        private String message;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+
+        DeletionJob(String id, Long authorId) {
+            this.id = id;
+            this.authorId = authorId;
+        }
+
+        synchronized void started(long books) {
+            state = AuthorDeletionStatusDTO.State.RUNNING;
+            totalBooks = books;
+            startedAt = LocalDateTime.now();
+        }
+
+        synchronized void deleted(int books) {
+            deletedBooks += books;
+        }
+
+        synchronized void completed() {
+            state = AuthorDeletionStatusDTO.State.COMPLETED;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized void failed(String reason) {
+            state = AuthorDeletionStatusDTO.State.FAILED;
+            message = reason;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized boolean finishedBefore(LocalDateTime cutoff) {
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        }
+
+        synchronized AuthorDeletionStatusDTO toStatus() {
+            return new AuthorDeletionStatusDTO(id, authorId, state, totalBooks, deletedBooks, message,
+                    startedAt, finishedAt);
+        }
+    }
+}
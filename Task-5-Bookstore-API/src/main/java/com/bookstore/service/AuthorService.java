@@ -1,14 +1,36 @@
 package com.bookstore.service;
 
+import com.bookstore.config.CacheConfig;
+import com.bookstore.dto.AuthorResponseDTO;
+import com.bookstore.dto.CursorPageResponseDTO;
 import com.bookstore.entity.Author;
+import com.bookstore.entity.Book;
+import com.bookstore.event.AuthorChangedEvent;
+import com.bookstore.event.BookChangedEvent;
+import com.bookstore.mapper.AuthorMapper;
 import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Author Service
@@ -21,17 +43,75 @@ import java.util.Optional;
  * - @Transactional for database transactions
  * - Dependency Injection with @Autowired
  * - Business logic implementation
+ * - Keyset (cursor) pagination for deep pages
+ * - Concurrent identical lookups by ID / email coalesced (SingleFlight)
+ * - Book DTO caches embed author data and filter counts match on author name, so author writes clear them
+ * - Author listings with book count and first books from one batched query (no books collection per author)
+ * - Set-based author deletion (no cascade through loaded entities), optionally chunked (AuthorDeletionService)
  */
 @Service
 @Transactional
 public class AuthorService {
     
+    // Fields accepted as sortBy for keyset pagination, with their Java types.
+    // Each has a (sortKey, id) index (V5 migration); free-text biography is not sortable.
+    public static final Map<String, Class<?>> SORTABLE_FIELDS = Map.of(
+            "id", Long.class,
+            "name", String.class,
+            "email", String.class);
+    
+    // Book ids per DELETE statement when deleting an author (bounded IN list)
+    public static final int DELETE_BATCH_SIZE = 1000;
+    
+    // Authors per first-books query of a listing (bounded IN list)
+    private static final int LISTING_BATCH_SIZE = 1000;
+    
+    // Second-level cache role of Author.books
+    private static final String AUTHOR_BOOKS_ROLE = Author.class.getName() + ".books";
+    
     @Autowired
     private AuthorRepository authorRepository;
     
+    @Autowired
+    private BookRepository bookRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private AuthorMapper authorMapper;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private EntityCacheEvictor entityCacheEvictor;
+    
+    // Books listed per author in author listings (the rest via GET /api/authors/{id}/books)
+    @Value("${bookstore.authors.listing-books}")
+    private int listingBooks;
+    
+    // In-flight DTO lookups, so a burst of requests for a hot author runs one query
+    private SingleFlight<Long, Optional<AuthorResponseDTO>> authorsById;
+    private SingleFlight<String, Optional<AuthorResponseDTO>> authorsByEmail;
+    
+    @PostConstruct
+    public void initLookups() {
+        authorsById = new SingleFlight<>("authorsById", meterRegistry);
+        authorsByEmail = new SingleFlight<>("authorsByEmail", meterRegistry);
+    }
+    
     // Create or Update Author
+    @CacheEvict(cacheNames = {CacheConfig.BOOKS_BY_ID, CacheConfig.BOOKS_BY_ISBN, CacheConfig.BOOK_FILTER_COUNTS},
+            allEntries = true)
     public Author saveAuthor(Author author) {
-        return authorRepository.save(author);
+        boolean created = author.getId() == null;
+        Author saved = authorRepository.save(author);
+        eventPublisher.publishEvent(new AuthorChangedEvent(saved.getId(), saved, created));
+        return saved;
     }
     
     // Get all authors
@@ -46,12 +126,82 @@ public class AuthorService {
         return authorRepository.findAll(pageable);
     }
     
+    // Get all authors for a listing: book count and first books instead of every book (see toListing)
+    @Transactional(readOnly = true)
+    public List<AuthorResponseDTO> getAuthorListing() {
+        return toListing(authorRepository.findAll());
+    }
+    
+    // Get a page of authors for a listing
+    @Transactional(readOnly = true)
+    public Page<AuthorResponseDTO> getAuthorListing(Pageable pageable) {
+        Page<Author> authors = authorRepository.findAll(pageable);
+        return new PageImpl<>(toListing(authors.getContent()), authors.getPageable(), authors.getTotalElements());
+    }
+    
+    // Get a keyset page of authors for a listing
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<AuthorResponseDTO> scrollAuthorListing(String cursor, int size, String sortBy, String sortDir) {
+        CursorPageResponseDTO<Author> authors = scrollAuthors(cursor, size, sortBy, sortDir);
+        return new CursorPageResponseDTO<>(toListing(authors.getContent()), authors.getSize(),
+                authors.isHasNext(), authors.getNextCursor());
+    }
+    
+    // Search authors by name for a listing
+    @Transactional(readOnly = true)
+    public List<AuthorResponseDTO> searchAuthorListing(String name) {
+        return toListing(authorRepository.findByNameContainingIgnoreCase(name));
+    }
+    
+    // Get a page of an author's books (id, title, ISBN); empty when the author does not exist
+    @Transactional(readOnly = true)
+    public Optional<Page<AuthorResponseDTO.BookDTO>> getAuthorBooks(Long id, Pageable pageable) {
+        if (!authorRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(bookRepository.findSummariesByAuthorId(id, pageable).map(authorMapper::toBookDTO));
+    }
+    
+    // Get authors with keyset pagination (no OFFSET scan, no COUNT query)
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<Author> scrollAuthors(String cursor, int size, String sortBy, String sortDir) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        KeysetCursor position = KeysetCursor.of(cursor, sortBy, sortDir, SORTABLE_FIELDS);
+        List<Author> rows = authorRepository.findBy(position.<Author>toSpecification(),
+                query -> query.sortBy(position.toSort())
+                        .limit(size + 1)
+                        .all());
+        return position.toPage(rows, size);
+    }
+    
     // Get author by ID
     @Transactional(readOnly = true)
     public Optional<Author> getAuthorById(Long id) {
         return authorRepository.findById(id);
     }
     
+    // Get author DTO by ID; concurrent requests for the same ID share one query
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<AuthorResponseDTO> getAuthorResponseById(Long id) {
+        return authorsById.execute(id, () -> readOnly(() ->
+                authorRepository.findById(id).map(authorMapper::toResponseDTO)));
+    }
+    
+    // Get author DTO by email; concurrent requests for the same email share one query
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<AuthorResponseDTO> getAuthorResponseByEmail(String email) {
+        return authorsByEmail.execute(email, () -> readOnly(() ->
+                authorRepository.findByEmail(email).map(authorMapper::toResponseDTO)));
+    }
+    
+    // Get only the versions of an author and its books (for If-None-Match and If-Match)
+    @Transactional(readOnly = true)
+    public Optional<AuthorRepository.AuthorVersion> getAuthorVersion(Long id) {
+        return authorRepository.findVersionById(id);
+    }
+    
     // Get author by email
     @Transactional(readOnly = true)
     public Optional<Author> getAuthorByEmail(String email) {
@@ -64,9 +214,34 @@ public class AuthorService {
         return authorRepository.findByNameContainingIgnoreCase(name);
     }
     
-    // Delete author by ID
-    public void deleteAuthor(Long id) {
-        authorRepository.deleteById(id);
+    // Delete author by ID together with the author's books, in set-based statements:
+    // the book ids are read in one query and deleted DELETE_BATCH_SIZE at a time, then the author row.
+    // No entity is loaded, so no books collection is initialized and no row is deleted one by one.
+    // Returns the number of deleted books.
+    @CacheEvict(cacheNames = {CacheConfig.BOOKS_BY_ID, CacheConfig.BOOKS_BY_ISBN, CacheConfig.BOOK_FILTER_COUNTS},
+            allEntries = true)
+    public int deleteAuthor(Long id) {
+        List<Long> bookIds = bookRepository.findIdsByAuthorId(id, Pageable.unpaged());
+        deleteBooks(id, bookIds);
+        lockAuthor(id);
+        if (authorRepository.deleteRowById(id) > 0) {
+            entityCacheEvictor.invalidateQueriesAfterCompletion(Author.class);
+            eventPublisher.publishEvent(new AuthorChangedEvent(id, null));
+        }
+        return bookIds.size();
+    }
+    
+    // Delete the next (lowest id) limit books of an author in this transaction, keeping the author.
+    // Used by AuthorDeletionService to delete a prolific author in short transactions. Returns how many.
+    @CacheEvict(cacheNames = {CacheConfig.BOOKS_BY_ID, CacheConfig.BOOKS_BY_ISBN, CacheConfig.BOOK_FILTER_COUNTS},
+            allEntries = true)
+    public int deleteBooksOfAuthor(Long authorId, int limit) {
+        List<Long> bookIds = bookRepository.findIdsByAuthorId(authorId, PageRequest.of(0, limit));
+        if (!bookIds.isEmpty()) {
+            lockAuthor(authorId);
+            deleteBooks(authorId, bookIds);
+        }
+        return bookIds.size();
     }
     
     // Check if author exists
@@ -80,4 +255,46 @@ public class AuthorService {
     public long countAuthors() {
         return authorRepository.count();
     }
+    
+    // Helper: Map authors to listing DTOs. The book counts and first listingBooks books of LISTING_BATCH_SIZE
+    // authors come from one query, so a page costs one query more, whatever the number of books.
+    private List<AuthorResponseDTO> toListing(List<Author> authors) {
+        List<Long> ids = authors.stream().map(Author::getId).collect(Collectors.toList());
+        Map<Long, List<BookRepository.AuthorBookRow>> firstBooks = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += LISTING_BATCH_SIZE) {
+            bookRepository.findFirstBooksByAuthorIds(ids.subList(from, Math.min(from + LISTING_BATCH_SIZE, ids.size())),
+                            listingBooks)
+                    .forEach(row -> firstBooks.computeIfAbsent(row.getAuthorId(), authorId -> new ArrayList<>()).add(row));
+        }
+        return authors.stream()
+                .map(author -> authorMapper.toListingDTO(author, firstBooks.getOrDefault(author.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+    
+    // Helper: Delete books by id in statements of DELETE_BATCH_SIZE and tell the caches and read models
+    private void deleteBooks(Long authorId, List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        entityCacheEvictor.lockUntilCompletion(Book.class, bookIds);
+        for (int from = 0; from < bookIds.size(); from += DELETE_BATCH_SIZE) {
+            bookRepository.deleteAllByAuthorIdAndIdIn(authorId, bookIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, bookIds.size())));
+        }
+        entityCacheEvictor.invalidateQueriesAfterCompletion(Book.class);
+        bookIds.forEach(bookId -> eventPublisher.publishEvent(new BookChangedEvent(bookId, null)));
+    }
+    
+    // Helper: Lock an author and its cached book list in the second-level cache until the transaction
+    // completes (before the native statements that change them)
+    private void lockAuthor(Long id) {
+        entityCacheEvictor.lockUntilCompletion(Author.class, List.of(id));
+        entityCacheEvictor.lockCollectionsUntilCompletion(AUTHOR_BOOKS_ROLE, List.of(id));
+    }
+    
+    // Helper: Run a read in its own read-only transaction (only the caller that runs a coalesced query holds a connection)
+    private <T> T readOnly(Supplier<T> read) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(true);
+        return template.execute(status -> read.get());
+    }
 }
@@ -0,0 +1,187 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.CatalogStatsDTO;
+import com.bookstore.entity.Book;
+import com.bookstore.event.BookChangedEvent;
+import com.bookstore.event.BookStockChangedEvent;
+import com.bookstore.repository.BookRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Book Catalog Stats
+ *
+ * Per-genre and per-publisher aggregates (book count, stock, average,
+ * min and max price), updated incrementally on every committed book write
+ * so /api/books/stats reads O(groups) instead of scanning the catalog.
+ *
+ * Key Concepts:
+ * - Striped counters (LongAdder) so concurrent writers do not contend
+ * - Per-book snapshot of the aggregated columns, so an update or delete
+ *   subtracts exactly what was added before
+ * - Per-group price multiset (cents -> count) keeps min/max exact on deletes
+ * - Rebuilt at startup, kept in sync by BookChangedEvent / BookStockChangedEvent after commit;
+ *   book states older than the counted @Version are ignored (BookVersions)
+ */
+@Component
+public class BookCatalogStats implements SmartInitializingSingleton {
+
+    // Group key of books without a genre or publisher (map keys cannot be null)
+    private static final String NONE = "";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    // Aggregated columns of every book, as last counted
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Version of each book's counted state, so late events cannot bring back an older one
+    private final BookVersions versions = new BookVersions();
+
+    private final Map<String, GroupAggregate> genres = new ConcurrentHashMap<>();
+    private final Map<String, GroupAggregate> publishers = new ConcurrentHashMap<>();
+
+    // Build the aggregates from the database before the server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    // Drop everything and aggregate the whole catalog again
+    public synchronized void rebuild() {
+        snapshots.clear();
+        genres.clear();
+        publishers.clear();
+        versions.clear();
+        bookRepository.findAllStatsRows().forEach(row -> {
+            versions.seed(row.getId(), row.getVersion());
+            replace(row.getId(), new Snapshot(row.getGenre(), row.getPublisher(), row.getQuantity(), toCents(row.getPrice())));
+        });
+    }
+
+    // Keep the aggregates in sync with committed book writes (events older than the counted state are ignored)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Book book = event.getBook();
+        versions.applyIfNewer(event, () -> replace(event.getBookId(), event.isDeleted()
+                ? null
+                : new Snapshot(book.getGenre(), book.getPublisher(), book.getQuantity(), toCents(book.getPrice()))));
+    }
+
+    // Follow reservations and releases (quantity only; ignored when older than the counted state)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookStockChanged(BookStockChangedEvent event) {
+        versions.updateIfNewer(event.getBookId(), event.getVersion(), () ->
+                snapshots.computeIfPresent(event.getBookId(), (id, previous) -> {
+                    Snapshot next = new Snapshot(previous.genre(), previous.publisher(),
+                            event.getQuantity(), previous.priceCents());
+                    apply(previous, -1);
+                    apply(next, 1);
+                    return next;
+                }) != null);
+    }
+
+    // Current totals and group aggregates (empty groups left by deletes are skipped)
+    public CatalogStatsDTO snapshot() {
+        List<CatalogStatsDTO.GroupStats> byGenre = toGroupStats(genres);
+        List<CatalogStatsDTO.GroupStats> byPublisher = toGroupStats(publishers);
+        long bookCount = byGenre.stream().mapToLong(CatalogStatsDTO.GroupStats::getBookCount).sum();
+        long totalStock = byGenre.stream().mapToLong(CatalogStatsDTO.GroupStats::getTotalStock).sum();
+        return new CatalogStatsDTO(bookCount, totalStock, byGenre, byPublisher);
+    }
+
+    // Helper: Swap the counted state of one book (null = deleted); atomic per book id
+    private void replace(Long id, Snapshot next) {
+        snapshots.compute(id, (key, previous) -> {
+            if (previous != null) {
+                apply(previous, -1);
+            }
+            if (next != null) {
+                apply(next, 1);
+            }
+            return next;
+        });
+    }
+
+    private void apply(Snapshot snapshot, int sign) {
+        genres.computeIfAbsent(keyOf(snapshot.genre()), k -> new GroupAggregate()).add(snapshot, sign);
+        publishers.computeIfAbsent(keyOf(snapshot.publisher()), k -> new GroupAggregate()).add(snapshot, sign);
+    }
+
+    private List<CatalogStatsDTO.GroupStats> toGroupStats(Map<String, GroupAggregate> groups) {
+        return groups.entrySet().stream()
+                .map(entry -> entry.getValue().toStats(entry.getKey().isEmpty() ? null : entry.getKey()))
+                .filter(stats -> stats.getBookCount() > 0)
+                .sorted(Comparator.comparing(CatalogStatsDTO.GroupStats::getName,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+    }
+
+    private static String keyOf(String group) {
+        return group == null ? NONE : group;
+    }
+
+    private static Long toCents(BigDecimal price) {
+        return price == null ? null : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    // Columns of one book that feed the aggregates (price in cents, null when unpriced)
+    private record Snapshot(String genre, String publisher, Integer quantity, Long priceCents) {
+    }
+
+    // Striped counters of one genre or publisher
+    private static class GroupAggregate {
+
+        private final LongAdder bookCount = new LongAdder();
+        private final LongAdder totalStock = new LongAdder();
+        private final LongAdder pricedCount = new LongAdder();
+        private final LongAdder priceSumCents = new LongAdder();
+
+        // How many books of the group have each price, for min/max
+        private final ConcurrentSkipListMap<Long, Long> priceCounts = new ConcurrentSkipListMap<>();
+
+        void add(Snapshot snapshot, int sign) {
+            bookCount.add(sign);
+            totalStock.add(sign * (long) Objects.requireNonNullElse(snapshot.quantity(), 0));
+            Long cents = snapshot.priceCents();
+            if (cents != null) {
+                pricedCount.add(sign);
+                priceSumCents.add(sign * cents);
+                priceCounts.compute(cents, (price, count) -> {
+                    long updated = (count == null ? 0 : count) + sign;
+                    return updated > 0 ? updated : null;
+                });
+            }
+        }
+
+        CatalogStatsDTO.GroupStats toStats(String name) {
+            long priced = pricedCount.sum();
+            Map.Entry<Long, Long> min = priceCounts.firstEntry();
+            Map.Entry<Long, Long> max = priceCounts.lastEntry();
+            return new CatalogStatsDTO.GroupStats(
+                    name,
+                    bookCount.sum(),
+                    totalStock.sum(),
+                    priced == 0 ? null : fromCents(priceSumCents.sum()).divide(BigDecimal.valueOf(priced), 2, RoundingMode.HALF_UP),
+                    min == null ? null : fromCents(min.getKey()),
+                    max == null ? null : fromCents(max.getKey()));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.BookRequestDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Book CSV Parser
+ *
+ * Maps CSV records (RFC 4180: comma separated, fields optionally quoted,
+ * "" for a quote inside a quoted field) to BookRequestDTO.
+ * The header row names the columns; title is required, the order is free.
+ *
+ * Key Concepts:
+ * - Header matched case-insensitively, '_' and spaces ignored (published_date = publishedDate)
+ * - Empty fields become null
+ * - Row errors thrown as IllegalArgumentException (reported per row, the import goes on)
+ * - Immutable after construction, shared by the parser threads
+ */
+final class BookCsvParser {
+
+    // Accepted columns
+    private static final List<String> COLUMNS = List.of(
+            "title", "isbn", "description", "price", "quantity",
+            "publishedDate", "genre", "publisher", "authorId", "authorName");
+
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final int columnCount;
+
+    BookCsvParser(List<String> header) {
+        Map<String, String> columnsByKey = new HashMap<>();
+        COLUMNS.forEach(column -> columnsByKey.put(key(column), column));
+        for (int i = 0; i < header.size(); i++) {
+            String name = i == 0 ? header.get(i).replace("\uFEFF", "") : header.get(i);
+            String column = columnsByKey.get(key(name));
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown CSV column: " + name + " (expected some of " + COLUMNS + ")");
+            }
+            if (positions.put(column, i) != null) {
+                throw new IllegalArgumentException("Duplicate CSV column: " + name);
+            }
+        }
+        if (!positions.containsKey("title")) {
+            throw new IllegalArgumentException("CSV column title is required");
+        }
+        this.columnCount = header.size();
+    }
+
+    // Split CSV text into records of fields. A trailing line break does not start another record;
+    // a blank line is a record with one empty field.
+    static List<List<String>> records(String text) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < length && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (quoted) {
+                field.append(c);
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        if (field.length() > 0 || !record.isEmpty()) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+
+    // Is the record an empty line
+    static boolean isBlank(List<String> record) {
+        return record.size() == 1 && record.get(0).isBlank();
+    }
+
+    // Map one record (authorId as given, names are resolved by the caller)
+    BookRequestDTO toRequest(List<String> record) {
+        if (record.size() != columnCount) {
+            throw new IllegalArgumentException("Expected " + columnCount + " fields, found " + record.size());
+        }
+        BookRequestDTO dto = new BookRequestDTO();
+        dto.setTitle(value(record, "title"));
+        if (dto.getTitle() == null) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        dto.setIsbn(value(record, "isbn"));
+        dto.setDescription(value(record, "description"));
+        dto.setGenre(value(record, "genre"));
+        dto.setPublisher(value(record, "publisher"));
+        String price = value(record, "price");
+        String quantity = value(record, "quantity");
+        String publishedDate = value(record, "publishedDate");
+        String authorId = value(record, "authorId");
+        try {
+            dto.setPrice(price == null ? null : new BigDecimal(price));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price: " + price);
+        }
+        try {
+            dto.setQuantity(quantity == null ? null : Integer.valueOf(quantity));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid quantity: " + quantity);
+        }
+        try {
+            dto.setPublishedDate(publishedDate == null ? null : LocalDate.parse(publishedDate));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid publishedDate (expected yyyy-MM-dd): " + publishedDate);
+        }
+        try {
+            dto.setAuthorId(authorId == null ? null : Long.valueOf(authorId));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid authorId: " + authorId);
+        }
+        return dto;
+    }
+
+    // Author name of the record, or null
+    String authorName(List<String> record) {
+        return value(record, "authorName");
+    }
+
+    // ISBN of the record for error reports, or null (also for malformed records)
+    String isbn(List<String> record) {
+        return value(record, "isbn");
+    }
+
+    // Helper: Trimmed field of a column, null when the column or the value is missing
+    private String value(List<String> record, String column) {
+        Integer position = positions.get(column);
+        if (position == null || position >= record.size()) {
+            return null;
+        }
+        String value = record.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Helper: Normalized column name
+    private static String key(String name) {
+        return name.replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,430 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Author;
+import com.bookstore.entity.Book;
+import com.bookstore.event.AuthorChangedEvent;
+import com.bookstore.event.BookChangedEvent;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Book Filter Index
+ *
+ * Optional in-process columnar copy of the filterable book fields, so
+ * /api/books/filter is evaluated, sorted and paged in memory and only the
+ * books of the requested page are loaded from the database (bookstore.filter.columnar.enabled).
+ *
+ * Key Concepts:
+ * - One array per column (id, title, price in cents, genre code, author code), one slot per book
+ * - Dictionary encoding: genres and authors are int codes with a bitmap (BitSet) of their rows
+ * - Predicates as bitmap intersections first (genre, author name), then a scan of the
+ *   remaining rows for title and price
+ * - Top-N selection for the page (bounded heap), so only offset + size rows are ordered
+ * - Same semantics as the JPA Specification: case-insensitive contains on title (narrowed to the
+ *   search index candidates first) and author name, exact genre, inclusive price range;
+ *   books without price/author never match those filters
+ * - Genre and title ignore case like their columns (V6 migration): genres are encoded
+ *   lower-cased, titles and genres sort by their lower-cased value
+ * - Rebuilt at startup, kept in sync by BookChangedEvent / AuthorChangedEvent after commit;
+ *   book states older than the indexed @Version are ignored (BookVersions)
+ */
+@Component
+public class BookFilterIndex implements SmartInitializingSingleton {
+
+    // Sort fields answered in memory; any other sort falls back to the database
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "title", "price", "genre");
+
+    private static final int NONE = -1;
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Columns, indexed by row slot
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[] lowerTitles = new String[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private int[] genres = new int[INITIAL_CAPACITY];
+    private int[] authors = new int[INITIAL_CAPACITY];
+
+    // Slots holding a book, slot of each book id, slots freed by deletes
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int slotCount;
+
+    // Version of each book's indexed state, so late events cannot bring back an older one
+    private final BookVersions versions = new BookVersions();
+
+    private final Dictionary<String> genreDictionary = new Dictionary<>();
+    private final Dictionary<Long> authorDictionary = new Dictionary<>();
+
+    // Lower-cased name per author code
+    private final List<String> authorNames = new ArrayList<>();
+
+    public BookFilterIndex(@Value("${bookstore.filter.columnar.enabled}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Build the index from the database before the server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Drop everything and index the filterable columns of the whole catalog
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        List<BookRepository.FilterRow> rows = bookRepository.findAllFilterRows();
+        lock.writeLock().lock();
+        try {
+            live.clear();
+            slotById.clear();
+            freeSlots.clear();
+            slotCount = 0;
+            genreDictionary.clear();
+            authorDictionary.clear();
+            authorNames.clear();
+            versions.clear();
+            rows.forEach(row -> {
+                versions.seed(row.getId(), row.getVersion());
+                add(row.getId(), row.getTitle(), row.getGenre(), row.getPrice(), row.getAuthorId(), row.getAuthorName());
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Keep the index in sync with committed book writes (events older than the indexed state are ignored)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Book book = event.getBook();
+        Long authorId = book != null && book.getAuthor() != null ? book.getAuthor().getId() : null;
+        String authorName = authorId != null ? authorNameOf(book.getAuthor()) : null;
+        lock.writeLock().lock();
+        try {
+            versions.applyIfNewer(event, () -> {
+                remove(event.getBookId());
+                if (!event.isDeleted()) {
+                    add(book.getId(), book.getTitle(), book.getGenre(), book.getPrice(), authorId, authorName);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Follow author renames (the rows of a deleted author leave with their BookChangedEvents)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        if (!enabled || event.isDeleted()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int code = authorDictionary.find(event.getAuthorId());
+            if (code != NONE) {
+                authorNames.set(code, lowerCase(event.getAuthor().getName()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Whether the index can order by the given sort (one property, default null handling)
+    public boolean canSort(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1
+                && SORTABLE_FIELDS.contains(orders.get(0).getProperty())
+                && !orders.get(0).isIgnoreCase()
+                && orders.get(0).getNullHandling() == Sort.NullHandling.NATIVE;
+    }
+
+    // One page of matching book ids in sort order, and the number of matches. titleIds are the title
+    // candidates of the search index (a superset of the substring matches), or null to check every row.
+    // Empty when the index is disabled or cannot order by the sort (use the database then).
+    public Optional<Matches> filter(String title, Set<Long> titleIds, String genre, String authorName,
+                                    BigDecimal minPrice, BigDecimal maxPrice,
+                                    Sort sort, long offset, int limit) {
+        if (!enabled || !canSort(sort)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            BitSet rows = match(title, titleIds, genre, authorName, minPrice, maxPrice);
+            int total = rows.cardinality();
+            return Optional.of(new Matches(page(rows, total, comparator(sort), offset, limit), total));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of indexed books
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Helper: Rows matching every given predicate
+    private BitSet match(String title, Set<Long> titleIds, String genre, String authorName,
+                         BigDecimal minPrice, BigDecimal maxPrice) {
+        BitSet rows = (BitSet) live.clone();
+
+        // Filter by title candidates from the search index
+        if (titleIds != null) {
+            BitSet byTitle = new BitSet();
+            titleIds.forEach(id -> {
+                Integer slot = slotById.get(id);
+                if (slot != null) {
+                    byTitle.set(slot);
+                }
+            });
+            rows.and(byTitle);
+        }
+
+        // Filter by genre: one bitmap
+        if (genre != null && !genre.isEmpty()) {
+            int code = genreDictionary.find(lowerCase(genre));
+            if (code == NONE) {
+                return new BitSet();
+            }
+            rows.and(genreDictionary.rows(code));
+        }
+
+        // Filter by author name: union of the bitmaps of every matching author
+        if (authorName != null && !authorName.isEmpty()) {
+            String needle = lowerCase(authorName);
+            BitSet byAuthor = new BitSet();
+            for (int code = 0; code < authorNames.size(); code++) {
+                if (authorNames.get(code) != null && authorNames.get(code).contains(needle)) {
+                    byAuthor.or(authorDictionary.rows(code));
+                }
+            }
+            rows.and(byAuthor);
+        }
+
+        // Filter by title and price: scan the rows left
+        String titleNeedle = title != null && !title.isEmpty() ? lowerCase(title) : null;
+        long from = minPrice != null ? toCents(minPrice, RoundingMode.CEILING) : NO_PRICE;
+        long to = maxPrice != null ? toCents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+        boolean priced = minPrice != null || maxPrice != null;
+        if (titleNeedle != null || priced) {
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                boolean titleMatches = titleNeedle == null
+                        || (lowerTitles[row] != null && lowerTitles[row].contains(titleNeedle));
+                boolean priceMatches = !priced || (prices[row] != NO_PRICE && prices[row] >= from && prices[row] <= to);
+                if (!titleMatches || !priceMatches) {
+                    rows.clear(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Helper: Ids of the rows at [offset, offset + limit) in sort order
+    private List<Long> page(BitSet rows, int total, Comparator<Integer> order, long offset, int limit) {
+        if (offset >= total || limit < 1) {
+            return List.of();
+        }
+        int wanted = (int) Math.min(total, offset + limit);
+        List<Integer> sorted;
+        if (wanted == total) {
+            sorted = new ArrayList<>(total);
+            rows.stream().forEach(sorted::add);
+        } else {
+            // Keep the first wanted rows in a heap whose head is the last of them
+            PriorityQueue<Integer> top = new PriorityQueue<>(wanted + 1, order.reversed());
+            rows.stream().forEach(row -> {
+                top.add(row);
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            });
+            sorted = new ArrayList<>(top);
+        }
+        sorted.sort(order);
+        return sorted.subList((int) offset, wanted).stream().map(row -> ids[row]).toList();
+    }
+
+    // Helper: Row order for a sort; case-insensitive, nulls sort low like in H2 and MySQL, ties by id
+    private Comparator<Integer> comparator(Sort sort) {
+        Sort.Order order = sort.isSorted() ? sort.toList().get(0) : Sort.Order.asc("id");
+        Comparator<Integer> byField = switch (order.getProperty()) {
+            case "title" -> Comparator.comparing(row -> lowerTitles[row], Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "price" -> Comparator.comparingLong(row -> prices[row]);
+            case "genre" -> Comparator.comparing(row -> genreDictionary.value(genres[row]),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            default -> Comparator.comparingLong(row -> ids[row]);
+        };
+        if (order.isDescending()) {
+            byField = byField.reversed();
+        }
+        return byField.thenComparingLong(row -> ids[row]);
+    }
+
+    // Helper: Store a book in a free slot (caller holds the write lock)
+    private void add(Long id, String title, String genre, BigDecimal price, Long authorId, String authorName) {
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        ensureCapacity(slot + 1);
+        ids[slot] = id;
+        lowerTitles[slot] = title != null ? lowerCase(title) : null;
+        prices[slot] = price != null ? toCents(price, RoundingMode.HALF_UP) : NO_PRICE;
+        genres[slot] = genre != null ? genreDictionary.add(lowerCase(genre), slot) : NONE;
+        authors[slot] = authorId != null ? authorDictionary.add(authorId, slot) : NONE;
+        if (authors[slot] != NONE) {
+            while (authorNames.size() <= authors[slot]) {
+                authorNames.add(null);
+            }
+            if (authorName != null) {
+                authorNames.set(authors[slot], lowerCase(authorName));
+            }
+        }
+        live.set(slot);
+        slotById.put(id, slot);
+    }
+
+    // Helper: Free the slot of a book (caller holds the write lock)
+    private void remove(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        live.clear(slot);
+        if (genres[slot] != NONE) {
+            genreDictionary.rows(genres[slot]).clear(slot);
+        }
+        if (authors[slot] != NONE) {
+            authorDictionary.rows(authors[slot]).clear(slot);
+        }
+        lowerTitles[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    // Helper: Grow every column to hold at least slots rows
+    private void ensureCapacity(int slots) {
+        if (slots <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(slots, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        lowerTitles = Arrays.copyOf(lowerTitles, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        genres = Arrays.copyOf(genres, capacity);
+        authors = Arrays.copyOf(authors, capacity);
+    }
+
+    // Helper: The author name of a saved book. After the commit a lazy author can no longer be
+    // loaded through the book, so an author not indexed yet is looked up by id.
+    private String authorNameOf(Author author) {
+        if (Hibernate.isInitialized(author)) {
+            return author.getName();
+        }
+        lock.readLock().lock();
+        try {
+            if (authorDictionary.find(author.getId()) != NONE) {
+                return null;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return authorRepository.findById(author.getId()).map(Author::getName).orElse(null);
+    }
+
+    private static String lowerCase(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        return price.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+
+    // A page of matching book ids and the total number of matches
+    public record Matches(List<Long> ids, int total) {
+    }
+
+    // Dictionary encoding of one column: value -> code, code -> value, rows per code
+    private static final class Dictionary<V> {
+
+        private final Map<V, Integer> codes = new HashMap<>();
+        private final List<V> values = new ArrayList<>();
+        private final List<BitSet> rows = new ArrayList<>();
+
+        // Code of the value, or NONE
+        int find(V value) {
+            return codes.getOrDefault(value, NONE);
+        }
+
+        V value(int code) {
+            return code == NONE ? null : values.get(code);
+        }
+
+        BitSet rows(int code) {
+            return rows.get(code);
+        }
+
+        // Mark the row as holding the value, returns its code
+        int add(V value, int row) {
+            int code = codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                rows.add(new BitSet());
+                return values.size() - 1;
+            });
+            rows.get(code).set(row);
+            return code;
+        }
+
+        void clear() {
+            codes.clear();
+            values.clear();
+            rows.clear();
+        }
+    }
+}
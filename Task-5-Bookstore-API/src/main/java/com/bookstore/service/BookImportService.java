@@ -0,0 +1,487 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.BookRequestDTO;
+import com.bookstore.dto.BulkImportResultDTO;
+import com.bookstore.dto.ImportJobStatusDTO;
+import com.bookstore.repository.AuthorRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Book Import Service
+ *
+ * Asynchronous CSV catalog import for files with millions of rows.
+ * The upload is spooled to bookstore.import.directory, then processed in three stages:
+ *
+ *   reader (1 thread, NIO)  -> parsers (bookstore.import.parser-threads)  -> writer (1 thread)
+ *
+ * The reader cuts the file into batches of bookstore.import.batch-size rows and hands each
+ * batch to the parser pool; the futures go through a bounded queue in file order, so the
+ * reader blocks when the writer falls behind and memory stays flat. The writer inserts each
+ * batch in its own transaction (BookService.importBatch) and then moves the checkpoint
+ * (byte offset + row count) past it. A failed job can be resumed from its checkpoint.
+ *
+ * Key Concepts:
+ * - FileChannel reads into a reusable ByteBuffer, batches cut at unquoted line breaks
+ * - Parallel parsing/validation with ordered, single-threaded writes
+ * - Bounded queue (backpressure) between the stages
+ * - Author ids and names resolved against a directory loaded once per run (AuthorRepository)
+ * - Jobs run one at a time; status kept in memory, file kept until the job completes
+ * - Finished jobs are forgotten bookstore.import.retention after they end (a failed job's
+ *   file with them), so the status map does not grow with every upload
+ */
+@Service
+public class BookImportService implements DisposableBean {
+
+    // Size of each NIO read
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    // Longest accepted CSV row, so an unbalanced quote cannot swallow the whole file
+    private static final int MAX_ROW_BYTES = 1024 * 1024;
+
+    // Row errors listed per job (failed still counts all of them)
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    // End-of-file marker passed from the reader to the writer
+    private static final ParsedBatch END_OF_FILE = new ParsedBatch(0, 0, 0);
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private final Path directory;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final Duration retention;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService readerExecutor;
+    private final ExecutorService parserExecutor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public BookImportService(@Value("${bookstore.import.directory}") String directory,
+                             @Value("${bookstore.import.batch-size}") int batchSize,
+                             @Value("${bookstore.import.parser-threads}") int parserThreads,
+                             @Value("${bookstore.import.queue-capacity}") int queueCapacity,
+                             @Value("${bookstore.import.retention}") Duration retention) {
+        this.directory = Paths.get(directory);
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.retention = retention;
+        this.jobExecutor = Executors.newSingleThreadExecutor(daemonThreads("import-writer"));
+        this.readerExecutor = Executors.newSingleThreadExecutor(daemonThreads("import-reader"));
+        this.parserExecutor = Executors.newFixedThreadPool(
+                parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors(),
+                daemonThreads("import-parser"));
+    }
+
+    // Spool the CSV, check its header and queue the import. Throws IllegalArgumentException for a bad header.
+    public ImportJobStatusDTO startImport(InputStream csv) throws IOException {
+        expireFinishedJobs();
+        Files.createDirectories(directory);
+        String id = UUID.randomUUID().toString();
+        Path file = directory.resolve(id + ".csv");
+        Files.copy(csv, file);
+        try {
+            ImportJob job = new ImportJob(id, file, Files.size(file));
+            readHeader(job);
+            jobs.put(id, job);
+            jobExecutor.execute(() -> run(job));
+            return job.toStatus();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    // Get the status of an import
+    public Optional<ImportJobStatusDTO> getImport(String id) {
+        expireFinishedJobs();
+        return Optional.ofNullable(jobs.get(id)).map(ImportJob::toStatus);
+    }
+
+    // Get the status of all imports, newest first
+    public List<ImportJobStatusDTO> getAllImports() {
+        expireFinishedJobs();
+        return jobs.values().stream()
+                .map(ImportJob::toStatus)
+                .sorted(Comparator.comparing(ImportJobStatusDTO::getStartedAt,
+                        Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())).reversed())
+                .collect(Collectors.toList());
+    }
+
+    // Continue a failed import after its checkpoint. Throws IllegalStateException unless the job failed.
+    public Optional<ImportJobStatusDTO> resumeImport(String id) {
+        expireFinishedJobs();
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.requeue();
+        jobExecutor.execute(() -> run(job));
+        return Optional.of(job.toStatus());
+    }
+
+    @Override
+    public void destroy() {
+        jobExecutor.shutdownNow();
+        readerExecutor.shutdownNow();
+        parserExecutor.shutdownNow();
+    }
+
+    // Writer stage: runs one job from its checkpoint to the end of the file
+    private void run(ImportJob job) {
+        job.started();
+        BlockingQueue<Future<ParsedBatch>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Future<?> reader = null;
+        try {
+            AuthorDirectory authors = new AuthorDirectory(authorRepository.findAllNames());
+            reader = readerExecutor.submit(() -> read(job, authors, queue));
+            ParsedBatch batch;
+            while ((batch = queue.take().get()) != END_OF_FILE) {
+                BulkImportResultDTO written = bookService.importBatch(batch.requests);
+                job.commit(batch, written);
+            }
+            job.completed();
+            Files.deleteIfExists(job.file);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.failed("Interrupted");
+        } catch (ExecutionException e) {
+            job.failed(reasonOf(e.getCause()));
+        } catch (IOException | RuntimeException e) {
+            job.failed(reasonOf(e));
+        } finally {
+            if (reader != null) {
+                reader.cancel(true);
+            }
+            queue.forEach(pending -> pending.cancel(true));
+        }
+    }
+
+    // Reader stage: cut the file after the checkpoint into batches of whole rows.
+    // A read error or an oversized row is passed on as a failed batch, so the writer stops there.
+    private Void read(ImportJob job, AuthorDirectory authors, BlockingQueue<Future<ParsedBatch>> queue)
+            throws InterruptedException {
+        try (FileChannel channel = FileChannel.open(job.file, StandardOpenOption.READ)) {
+            long position = job.checkpointOffset();
+            int firstRow = job.checkpointRow();
+            channel.position(position);
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+            ByteArrayOutputStream pending = new ByteArrayOutputStream();
+            int rows = 0;
+            int rowBytes = 0;
+            boolean quoted = false;
+            while (channel.read(buffer) != -1) {
+                byte[] bytes = buffer.array();
+                int limit = buffer.position();
+                int from = 0;
+                for (int i = 0; i < limit; i++) {
+                    byte b = bytes[i];
+                    if (b == '"') {
+                        quoted = !quoted;
+                    } else if (b == '\n' && !quoted) {
+                        rowBytes = 0;
+                        if (++rows == batchSize) {
+                            pending.write(bytes, from, i + 1 - from);
+                            from = i + 1;
+                            queue.put(parse(job, authors, pending.toByteArray(), firstRow, rows, position + i + 1));
+                            pending.reset();
+                            firstRow += rows;
+                            rows = 0;
+                        }
+                        continue;
+                    }
+                    if (++rowBytes > MAX_ROW_BYTES) {
+                        throw new IllegalArgumentException("Row " + (firstRow + rows)
+                                + " is longer than " + MAX_ROW_BYTES + " bytes (unbalanced quote?)");
+                    }
+                }
+                pending.write(bytes, from, limit - from);
+                position += limit;
+                buffer.clear();
+            }
+            if (pending.size() > 0) {
+                // The last row may end without a line break
+                int lastRows = rows + (rowBytes > 0 ? 1 : 0);
+                queue.put(parse(job, authors, pending.toByteArray(), firstRow, lastRows, position));
+            }
+            queue.put(CompletableFuture.completedFuture(END_OF_FILE));
+        } catch (IOException | RuntimeException e) {
+            queue.put(CompletableFuture.failedFuture(e));
+        }
+        return null;
+    }
+
+    // Parser stage: decode, parse and validate one batch on the parser pool
+    private Future<ParsedBatch> parse(ImportJob job, AuthorDirectory authors, byte[] bytes,
+                                      int firstRow, int rowCount, long endOffset) {
+        return parserExecutor.submit(() -> {
+            ParsedBatch batch = new ParsedBatch(firstRow, rowCount, endOffset);
+            List<List<String>> records = BookCsvParser.records(new String(bytes, StandardCharsets.UTF_8));
+            for (int i = 0; i < records.size(); i++) {
+                List<String> record = records.get(i);
+                if (BookCsvParser.isBlank(record)) {
+                    continue;
+                }
+                try {
+                    BookRequestDTO dto = job.parser.toRequest(record);
+                    authors.resolve(dto, job.parser.authorName(record));
+                    batch.add(firstRow + i, dto);
+                } catch (IllegalArgumentException e) {
+                    batch.errors.add(new BulkImportResultDTO.ItemError(
+                            firstRow + i, job.parser.isbn(record), e.getMessage()));
+                }
+            }
+            return batch;
+        });
+    }
+
+    // Helper: Parse the header row and start the checkpoint after it
+    private static void readHeader(ImportJob job) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(job.file))) {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            boolean quoted = false;
+            int b;
+            while ((b = in.read()) != -1) {
+                header.write(b);
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    break;
+                }
+                if (header.size() > MAX_ROW_BYTES) {
+                    throw new IllegalArgumentException("CSV header row is longer than " + MAX_ROW_BYTES + " bytes");
+                }
+            }
+            List<List<String>> records = BookCsvParser.records(header.toString(StandardCharsets.UTF_8));
+            if (records.isEmpty() || BookCsvParser.isBlank(records.get(0))) {
+                throw new IllegalArgumentException("CSV header row is missing");
+            }
+            job.parser = new BookCsvParser(records.get(0));
+            job.checkpointOffset = header.size();
+        }
+    }
+
+    // Helper: Forget jobs that finished more than the retention ago, deleting what is left of their file
+    private void expireFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (!job.expire(cutoff)) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(job.file);
+            } catch (IOException e) {
+                // Left in the import directory; the job is forgotten anyway
+            }
+            return true;
+        });
+    }
+
+    // Helper: Failure message for the job status
+    private static String reasonOf(Throwable failure) {
+        return failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+    }
+
+    // Helper: Named daemon threads for the pipeline stages
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Rows of one batch that passed parsing, plus the rows that did not
+    private static final class ParsedBatch {
+        private final int firstRow;
+        private final int rowCount;
+        private final long endOffset;
+        private final List<BookRequestDTO> requests = new ArrayList<>();
+        private final List<Integer> rows = new ArrayList<>();
+        private final List<BulkImportResultDTO.ItemError> errors = new ArrayList<>();
+
+        ParsedBatch(int firstRow, int rowCount, long endOffset) {
+            this.firstRow = firstRow;
+            this.rowCount = rowCount;
+            this.endOffset = endOffset;
+        }
+
+        void add(int row, BookRequestDTO request) {
+            rows.add(row);
+            requests.add(request);
+        }
+    }
+
+    // Author ids and names at the start of a run (immutable, shared by the parser threads)
+    private static final class AuthorDirectory {
+        private static final Long AMBIGUOUS = -1L;
+
+        private final Set<Long> ids = new HashSet<>();
+        private final Map<String, Long> idsByName = new HashMap<>();
+
+        AuthorDirectory(List<AuthorRepository.AuthorName> authors) {
+            for (AuthorRepository.AuthorName author : authors) {
+                ids.add(author.getId());
+                if (author.getName() != null) {
+                    idsByName.merge(key(author.getName()), author.getId(), (first, second) -> AMBIGUOUS);
+                }
+            }
+        }
+
+        // Check the author id, or look it up by name when no id is given
+        void resolve(BookRequestDTO dto, String authorName) {
+            if (dto.getAuthorId() != null) {
+                if (!ids.contains(dto.getAuthorId())) {
+                    throw new IllegalArgumentException("Author not found with id: " + dto.getAuthorId());
+                }
+            } else if (authorName != null) {
+                Long id = idsByName.get(key(authorName));
+                if (id == null) {
+                    throw new IllegalArgumentException("Author not found with name: " + authorName);
+                }
+                if (id.equals(AMBIGUOUS)) {
+                    throw new IllegalArgumentException("Several authors are named " + authorName + ", use authorId");
+                }
+                dto.setAuthorId(id);
+            }
+        }
+
+        private static String key(String name) {
+            return name.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // State of one import; the checkpoint only moves after a batch is committed
+    private static final class ImportJob {
+        private final String id;
+        private final Path file;
+        private final long totalBytes;
+        private BookCsvParser parser;
+        private ImportJobStatusDTO.State state = ImportJobStatusDTO.State.QUEUED;
+        private long checkpointOffset;
+        private int checkpointRow;
+        private int created;
+        private int failed;
+        private String message;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private boolean expired;
+        private final List<BulkImportResultDTO.ItemError> errors = new ArrayList<>();
+
+        ImportJob(String id, Path file, long totalBytes) {
+            this.id = id;
+            this.file = file;
+            this.totalBytes = totalBytes;
+        }
+
+        synchronized long checkpointOffset() {
+            return checkpointOffset;
+        }
+
+        synchronized int checkpointRow() {
+            return checkpointRow;
+        }
+
+        synchronized void started() {
+            state = ImportJobStatusDTO.State.RUNNING;
+            message = null;
+            if (startedAt == null) {
+                startedAt = LocalDateTime.now();
+            }
+        }
+
+        synchronized void commit(ParsedBatch batch, BulkImportResultDTO written) {
+            batch.errors.forEach(error -> addError(error.getIndex(), error.getIsbn(), error.getMessage()));
+            written.getErrors().forEach(error ->
+                    addError(batch.rows.get(error.getIndex()), error.getIsbn(), error.getMessage()));
+            created += written.getCreated();
+            checkpointOffset = batch.endOffset;
+            checkpointRow = batch.firstRow + batch.rowCount;
+        }
+
+        synchronized void completed() {
+            state = ImportJobStatusDTO.State.COMPLETED;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized void failed(String reason) {
+            state = ImportJobStatusDTO.State.FAILED;
+            message = reason;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized void requeue() {
+            if (expired) {
+                throw new IllegalStateException("Import " + id + " has expired");
+            }
+            if (state != ImportJobStatusDTO.State.FAILED) {
+                throw new IllegalStateException("Only failed imports can be resumed, import " + id + " is " + state);
+            }
+            state = ImportJobStatusDTO.State.QUEUED;
+            finishedAt = null;
+        }
+
+        // Mark the job expired when it finished before the cutoff (a queued or running job never expires)
+        synchronized boolean expire(LocalDateTime cutoff) {
+            boolean finished = state == ImportJobStatusDTO.State.COMPLETED || state == ImportJobStatusDTO.State.FAILED;
+            if (finished && finishedAt != null && finishedAt.isBefore(cutoff)) {
+                expired = true;
+            }
+            return expired;
+        }
+
+        synchronized ImportJobStatusDTO toStatus() {
+            double progress = totalBytes == 0 ? 100.0 : Math.round(checkpointOffset * 1000.0 / totalBytes) / 10.0;
+            return new ImportJobStatusDTO(id, state, totalBytes, checkpointOffset, progress, checkpointRow,
+                    created, failed, message, startedAt, finishedAt, new ArrayList<>(errors));
+        }
+
+        private void addError(int row, String isbn, String reason) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkImportResultDTO.ItemError(row, isbn, reason));
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import com.bookstore.event.BookChangedEvent;
+import com.bookstore.repository.BookRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Book Price Index
+ *
+ * In-process sorted index of book prices, so price range and
+ * "expensive books" queries are answered without a database range scan
+ * and sort. Only the matching page of ids is then loaded from the database.
+ *
+ * Key Concepts:
+ * - Prices scaled to long cents (the price column has scale 2)
+ * - Concurrent skip list ordered by (cents, id): lock-free reads, O(log n) writes
+ * - Range and top-N (descending) views with offset/limit pagination
+ * - Rebuilt at startup, kept in sync by BookChangedEvent after commit; events older
+ *   than the indexed @Version of a book are ignored (BookVersions)
+ */
+@Component
+public class BookPriceIndex implements SmartInitializingSingleton {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final ConcurrentSkipListSet<PriceEntry> entries = new ConcurrentSkipListSet<>();
+
+    // Indexed price of each book, so an update or delete can find its old entry
+    private final Map<Long, Long> centsById = new ConcurrentHashMap<>();
+
+    // Version of each book's indexed state, so late events cannot bring back an older price
+    private final BookVersions versions = new BookVersions();
+
+    // Build the index from the database before the server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    // Drop everything and re-index the prices of the whole catalog
+    public synchronized void rebuild() {
+        entries.clear();
+        centsById.clear();
+        versions.clear();
+        bookRepository.findAllPrices().forEach(row -> {
+            versions.seed(row.getId(), row.getVersion());
+            put(row.getId(), row.getPrice());
+        });
+    }
+
+    // Keep the index in sync with committed book writes (events older than the indexed state are ignored)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        versions.applyIfNewer(event, () -> {
+            Long oldCents = centsById.remove(event.getBookId());
+            if (oldCents != null) {
+                entries.remove(new PriceEntry(oldCents, event.getBookId()));
+            }
+            if (!event.isDeleted()) {
+                Book book = event.getBook();
+                put(book.getId(), book.getPrice());
+            }
+        });
+    }
+
+    // Ids of books priced between min and max (inclusive), cheapest first
+    public List<Long> range(BigDecimal minPrice, BigDecimal maxPrice, long offset, int limit) {
+        long from = toCents(minPrice, RoundingMode.CEILING);
+        long to = toCents(maxPrice, RoundingMode.FLOOR);
+        if (from > to) {
+            return List.of();
+        }
+        return page(entries.subSet(new PriceEntry(from, Long.MIN_VALUE), true,
+                new PriceEntry(to, Long.MAX_VALUE), true), offset, limit);
+    }
+
+    // Ids of books priced strictly above min, most expensive first
+    public List<Long> above(BigDecimal minPrice, long offset, int limit) {
+        long floor = toCents(minPrice, RoundingMode.FLOOR);
+        NavigableSet<PriceEntry> tail = entries.tailSet(new PriceEntry(floor, Long.MAX_VALUE), false);
+        return page(tail.descendingSet(), offset, limit);
+    }
+
+    // Number of indexed (non-null) prices
+    public int size() {
+        return centsById.size();
+    }
+
+    // Helper: Add one book price (books without a price are not indexed)
+    private void put(Long id, BigDecimal price) {
+        if (price == null) {
+            return;
+        }
+        long cents = toCents(price, RoundingMode.HALF_UP);
+        centsById.put(id, cents);
+        entries.add(new PriceEntry(cents, id));
+    }
+
+    // Helper: Skip offset entries of an ordered view and collect up to limit ids
+    private List<Long> page(NavigableSet<PriceEntry> view, long offset, int limit) {
+        List<Long> ids = new ArrayList<>();
+        Iterator<PriceEntry> iterator = view.iterator();
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (ids.size() < limit && iterator.hasNext()) {
+            ids.add(iterator.next().id());
+        }
+        return ids;
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        return price.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+
+    // Sort key: price in cents, then book id so equal prices stay distinct
+    private record PriceEntry(long cents, long id) implements Comparable<PriceEntry> {
+
+        @Override
+        public int compareTo(PriceEntry other) {
+            int byPrice = Long.compare(cents, other.cents);
+            return byPrice != 0 ? byPrice : Long.compare(id, other.id);
+        }
+    }
+}
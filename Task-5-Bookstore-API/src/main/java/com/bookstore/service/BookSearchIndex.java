@@ -0,0 +1,269 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import com.bookstore.event.BookChangedEvent;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Book Search Index
+ *
+ * In-process inverted index over book titles and descriptions.
+ * Replaces LIKE '%term%' scans with postings list lookups.
+ *
+ * Key Concepts:
+ * - Tokenization (lower case, split on non letters/digits)
+ * - Postings lists: term -> (book id -> term frequency)
+ * - Prefix matching through a sorted term dictionary ("jav" finds "java")
+ * - Candidate ids for substring title filters (term dictionary scan), never narrower than LIKE
+ * - Ranking: every term must match, scored by tf-idf, title hits weigh more
+ * - Rebuilt at startup, kept in sync by BookChangedEvent after commit; events older
+ *   than the indexed @Version of a book are ignored (BookVersions)
+ */
+@Component
+public class BookSearchIndex implements SmartInitializingSingleton {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    // A title occurrence counts as much as this many description occurrences
+    private static final int TITLE_WEIGHT = 3;
+
+    // Lazy: BookService also depends on this index
+    @Autowired
+    @Lazy
+    private BookService bookService;
+
+    private final NavigableMap<String, Map<Long, Integer>> titlePostings = new TreeMap<>();
+    private final NavigableMap<String, Map<Long, Integer>> descriptionPostings = new TreeMap<>();
+
+    // Terms indexed per book, so an update or delete can remove the old postings
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+
+    // Version of each book's indexed state, so late events cannot bring back an older one
+    private final BookVersions versions = new BookVersions();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Build the index from the database before the server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    // Drop everything and re-index the whole catalog
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            titlePostings.clear();
+            descriptionPostings.clear();
+            documentTerms.clear();
+            versions.clear();
+            bookService.exportBooks(book -> {
+                versions.seed(book.getId(), book.getVersion());
+                addDocument(book);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Keep the index in sync with committed book writes (events older than the indexed state are ignored)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            versions.applyIfNewer(event, () -> {
+                removeDocument(event.getBookId());
+                if (!event.isDeleted()) {
+                    addDocument(event.getBook());
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ranked search over titles and descriptions; returns at most limit book ids, best first
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = new HashMap<>();
+                collect(titlePostings, term, TITLE_WEIGHT, termScores);
+                collect(descriptionPostings, term, 1, termScores);
+
+                double idf = Math.log(1.0 + (double) documentTerms.size() / Math.max(1, termScores.size()));
+                termScores.replaceAll((id, score) -> score * idf);
+
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return topIds(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of every book whose title may contain the query as a substring (a superset of
+    // lower(title) LIKE '%query%', never missing a match). Only single-word queries can be answered:
+    // a match then lies inside one title term, so the terms containing the query are scanned.
+    // Accents are folded on both sides, so accent-insensitive collations lose nothing either.
+    // Empty when the query has several words or more than maxResults books qualify.
+    public Optional<Set<Long>> titleCandidates(String query, int maxResults) {
+        List<String> terms = tokenize(query);
+        if (terms.size() != 1 || !terms.get(0).equals(query.toLowerCase(Locale.ROOT))) {
+            return Optional.empty();
+        }
+        String needle = fold(terms.get(0));
+
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = new HashSet<>();
+            for (Map.Entry<String, Map<Long, Integer>> entry : titlePostings.entrySet()) {
+                if (fold(entry.getKey()).contains(needle)) {
+                    ids.addAll(entry.getValue().keySet());
+                    if (ids.size() > maxResults) {
+                        return Optional.empty();
+                    }
+                }
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Split text into lower-case word tokens (duplicates removed, order kept)
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    // Helper: Index title and description of one book (caller holds the write lock)
+    private void addDocument(Book book) {
+        Set<String> terms = new HashSet<>();
+        addPostings(titlePostings, book.getId(), book.getTitle(), terms);
+        addPostings(descriptionPostings, book.getId(), book.getDescription(), terms);
+        documentTerms.put(book.getId(), terms);
+    }
+
+    // Helper: Remove all postings of one book (caller holds the write lock)
+    private void removeDocument(Long id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            removePosting(titlePostings, term, id);
+            removePosting(descriptionPostings, term, id);
+        }
+    }
+
+    // Helper: Term without accents ("café" -> "cafe")
+    private static String fold(String term) {
+        if (term.chars().allMatch(c -> c < 128)) {
+            return term;
+        }
+        return DIACRITICS.matcher(Normalizer.normalize(term, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private void addPostings(Map<String, Map<Long, Integer>> postings, Long id, String text, Set<String> terms) {
+        if (text == null) {
+            return;
+        }
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                postings.computeIfAbsent(token, t -> new HashMap<>()).merge(id, 1, Integer::sum);
+                terms.add(token);
+            }
+        }
+    }
+
+    private void removePosting(Map<String, Map<Long, Integer>> postings, String term, Long id) {
+        Map<Long, Integer> list = postings.get(term);
+        if (list != null) {
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    // Add weighted term frequencies of every indexed term starting with prefix
+    private void collect(NavigableMap<String, Map<Long, Integer>> postings, String prefix,
+                         int weight, Map<Long, Double> scores) {
+        for (Map<Long, Integer> list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            list.forEach((id, frequency) -> scores.merge(id, (double) frequency * weight, Double::sum));
+        }
+    }
+
+    // Keep only books matching both sides, summing their scores
+    private Map<Long, Double> intersect(Map<Long, Double> left, Map<Long, Double> right) {
+        Map<Long, Double> result = new HashMap<>();
+        left.forEach((id, score) -> {
+            Double other = right.get(id);
+            if (other != null) {
+                result.put(id, score + other);
+            }
+        });
+        return result;
+    }
+
+    // Best limit ids by score (ties by id) using a bounded min-heap
+    private List<Long> topIds(Map<Long, Double> scores, int limit) {
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(ranking);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Long> ids = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ids.add(heap.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+}
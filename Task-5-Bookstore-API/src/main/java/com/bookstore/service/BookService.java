@@ -1,22 +1,67 @@
 package com.bookstore.service;
 
+import com.bookstore.config.CacheConfig;
+import com.bookstore.dto.BookRequestDTO;
+import com.bookstore.dto.BookResponseDTO;
+import com.bookstore.dto.BulkImportResultDTO;
+import com.bookstore.dto.CatalogStatsDTO;
+import com.bookstore.dto.CursorPageResponseDTO;
+import com.bookstore.dto.FilterConsistencyDTO;
 import com.bookstore.entity.Book;
 import com.bookstore.entity.Author;
+import com.bookstore.event.BookChangedEvent;
+import com.bookstore.event.BookStockChangedEvent;
+import com.bookstore.mapper.BookMapper;
 import com.bookstore.repository.BookRepository;
 import com.bookstore.repository.AuthorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.hibernate.jpa.SpecHints;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Book Service
@@ -29,17 +74,94 @@ import java.util.Optional;
  * - @Transactional for database transactions
  * - Specification pattern for dynamic filtering
  * - Pagination and Sorting support
+ * - Keyset (cursor) pagination for deep pages
+ * - Streaming export with a bounded persistence context
+ * - Read-through cache of book DTOs by ID and ISBN, concurrent misses coalesced (SingleFlight)
+ * - Inverted index for title search (BookSearchIndex)
+ * - Sorted in-memory price index for price range / expensive queries (BookPriceIndex)
+ * - Incrementally maintained per-genre / per-publisher statistics (BookCatalogStats)
+ * - BookChangedEvent published on every write
+ * - Bulk import with JDBC batching, chunked flush/clear
+ * - Version lookups for conditional requests (ETag / If-None-Match)
+ * - Count-free Slice filtering and cached filter totals
+ * - Optional columnar in-memory filter evaluation (BookFilterIndex), loading only the page
+ * - Atomic stock reserve/release with conditional UPDATEs
+ * - Hibernate second-level cache kept exact around native updates (EntityCacheEvictor)
  */
 @Service
 @Transactional
 public class BookService {
     
+    // Up to this many title candidates from the search index narrow the LIKE predicate with id IN (...)
+    private static final int MAX_TITLE_CANDIDATES = 1000;
+    
+    // At most this many differing ids are listed by checkFilterIndex
+    private static final int MAX_REPORTED_IDS = 100;
+    
+    // Items validated, inserted and committed together by bulkCreateBooks; also ids per IN list
+    private static final int BULK_CHUNK_SIZE = 1000;
+    
+    // Fields accepted as sortBy for keyset pagination, with their Java types.
+    // Each has a (sortKey, id) index (V2, V5 migrations); free-text description is not sortable.
+    public static final Map<String, Class<?>> SORTABLE_FIELDS = Map.of(
+            "id", Long.class,
+            "title", String.class,
+            "isbn", String.class,
+            "price", BigDecimal.class,
+            "quantity", Integer.class,
+            "publishedDate", LocalDate.class,
+            "genre", String.class,
+            "publisher", String.class);
+    
     @Autowired
     private BookRepository bookRepository;
     
     @Autowired
     private AuthorRepository authorRepository;
     
+    @Autowired
+    private BookMapper bookMapper;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private BookSearchIndex searchIndex;
+    
+    @Autowired
+    private BookPriceIndex priceIndex;
+    
+    @Autowired
+    private BookCatalogStats catalogStats;
+    
+    @Autowired
+    private BookFilterIndex filterIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private EntityCacheEvictor entityCacheEvictor;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // In-flight DTO lookups, so a burst of misses on a hot key runs one query
+    private SingleFlight<Long, Optional<BookResponseDTO>> booksById;
+    private SingleFlight<String, Optional<BookResponseDTO>> booksByIsbn;
+    
+    @PostConstruct
+    public void initLookups() {
+        booksById = new SingleFlight<>("booksById", meterRegistry);
+        booksByIsbn = new SingleFlight<>("booksByIsbn", meterRegistry);
+    }
+    
     // Create or Update Book
     public Book saveBook(Book book, Long authorId) {
         if (authorId != null) {
@@ -47,7 +169,54 @@ public class BookService {
                     .orElseThrow(() -> new RuntimeException("Author not found with id: " + authorId));
             book.setAuthor(author);
         }
-        return bookRepository.save(book);
+        boolean created = book.getId() == null;
+        if (!created) {
+            // The ISBN may change on update, so evict the entry under the old one too
+            bookRepository.findStoredKeysById(book.getId())
+                    .ifPresent(stored -> evictFromCache(book.getId(), stored.getIsbn()));
+        }
+        Book saved = bookRepository.save(book);
+        evictFromCache(saved.getId(), saved.getIsbn());
+        eventPublisher.publishEvent(new BookChangedEvent(saved.getId(), saved, created));
+        return saved;
+    }
+    
+    // Bulk create books. Items are processed in chunks, each in its own transaction:
+    // authors resolved with one query, ISBNs checked with one query, inserts batched.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkImportResultDTO bulkCreateBooks(Iterator<BookRequestDTO> items) {
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        List<BookRequestDTO> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+        try {
+            while (items.hasNext()) {
+                chunk.add(items.next());
+                if (chunk.size() == BULK_CHUNK_SIZE) {
+                    insertChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Unparseable input: insert what was read so far, report the bad item and stop
+            insertChunk(chunk, result);
+            result.setReceived(result.getReceived() + 1);
+            result.addError(result.getReceived() - 1, null, "Unreadable item: " + e.getMessage());
+            return result;
+        }
+        insertChunk(chunk, result);
+        return result;
+    }
+    
+    // Insert one batch of parsed items in its own transaction (CSV import pipeline).
+    // Unlike bulkCreateBooks a database failure is thrown, so the caller can stop and resume later;
+    // error indexes are positions in the batch.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkImportResultDTO importBatch(List<BookRequestDTO> batch) {
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        result.setReceived(batch.size());
+        if (!batch.isEmpty()) {
+            result.setCreated(transactionTemplate.execute(status -> writeChunk(batch, 0, result)));
+        }
+        return result;
     }
     
     // Get all books
@@ -56,12 +225,43 @@ public class BookService {
         return bookRepository.findAll();
     }
     
+    // Stream every book to the consumer without loading the catalog into memory.
+    // The persistence context is cleared after each fetch-size chunk so heap stays flat.
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            Iterator<Book> iterator = books.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                if (++count % BookRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+    
     // Get all books with pagination
     @Transactional(readOnly = true)
     public Page<Book> getAllBooks(Pageable pageable) {
         return bookRepository.findAll(pageable);
     }
     
+    // Get books with keyset pagination (no OFFSET scan, no COUNT query)
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<Book> scrollBooks(String cursor, int size, String sortBy, String sortDir) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        KeysetCursor position = KeysetCursor.of(cursor, sortBy, sortDir, SORTABLE_FIELDS);
+        List<Book> rows = bookRepository.findBy(position.<Book>toSpecification(),
+                query -> query.sortBy(position.toSort())
+                        .project("author")
+                        .limit(size + 1)
+                        .all());
+        return position.toPage(rows, size);
+    }
+    
     // Get all books with sorting
     @Transactional(readOnly = true)
     public List<Book> getAllBooks(Sort sort) {
@@ -80,10 +280,44 @@ public class BookService {
         return bookRepository.findByIsbn(isbn);
     }
     
-    // Search books by title
+    // Get only the versions of a book and its author (for If-None-Match)
+    @Transactional(readOnly = true)
+    public Optional<BookRepository.BookVersion> getBookVersion(Long id) {
+        return bookRepository.findVersionById(id);
+    }
+    
+    // Get only the versions of a book and its author by ISBN (for If-None-Match)
+    @Transactional(readOnly = true)
+    public Optional<BookRepository.BookVersion> getBookVersionByIsbn(String isbn) {
+        return bookRepository.findVersionByIsbn(isbn);
+    }
+    
+    // Get book DTO by ID (read-through cache; concurrent misses for the same ID share one query)
+    @Cacheable(cacheNames = CacheConfig.BOOKS_BY_ID, key = "#id", unless = "#result == null")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<BookResponseDTO> getBookResponseById(Long id) {
+        return booksById.execute(id, () -> readOnly(() ->
+                bookRepository.findById(id).map(bookMapper::toResponseDTO)));
+    }
+    
+    // Get book DTO by ISBN (read-through cache; concurrent misses for the same ISBN share one query)
+    @Cacheable(cacheNames = CacheConfig.BOOKS_BY_ISBN, key = "#isbn", unless = "#result == null")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<BookResponseDTO> getBookResponseByIsbn(String isbn) {
+        return booksByIsbn.execute(isbn, () -> readOnly(() ->
+                bookRepository.findByIsbn(isbn).map(bookMapper::toResponseDTO)));
+    }
+    
+    // Search books by title and description (ranked, best match first)
     @Transactional(readOnly = true)
-    public List<Book> searchBooksByTitle(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title);
+    public List<Book> searchBooksByTitle(String title, int limit) {
+        return findAllInOrder(searchIndex.search(title, limit));
+    }
+    
+    // Get catalog statistics per genre and publisher (in memory, no database access)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CatalogStatsDTO getCatalogStats() {
+        return catalogStats.snapshot();
     }
     
     // Get books by genre
@@ -101,7 +335,13 @@ public class BookService {
     // Get books by price range
     @Transactional(readOnly = true)
     public List<Book> getBooksByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return bookRepository.findByPriceBetween(minPrice, maxPrice);
+        return getBooksByPriceRange(minPrice, maxPrice, Pageable.unpaged());
+    }
+    
+    // Get one page of books by price range, cheapest first (ids from the in-memory price index)
+    @Transactional(readOnly = true)
+    public List<Book> getBooksByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        return findAllInOrder(priceIndex.range(minPrice, maxPrice, offsetOf(pageable), limitOf(pageable)));
     }
     
     // Get books by publisher
@@ -113,19 +353,190 @@ public class BookService {
     // Get expensive books
     @Transactional(readOnly = true)
     public List<Book> getExpensiveBooks(BigDecimal minPrice) {
-        return bookRepository.findExpensiveBooks(minPrice);
+        return getExpensiveBooks(minPrice, Pageable.unpaged());
     }
     
-    // Dynamic filtering with Specifications
+    // Get one page of books priced above minPrice, most expensive first (ids from the in-memory price index)
+    @Transactional(readOnly = true)
+    public List<Book> getExpensiveBooks(BigDecimal minPrice, Pageable pageable) {
+        return findAllInOrder(priceIndex.above(minPrice, offsetOf(pageable), limitOf(pageable)));
+    }
+    
+    // Dynamic filtering with Specifications (or in the columnar filter index when enabled)
     @Transactional(readOnly = true)
     public Page<Book> filterBooks(String title, String genre, String authorName, 
                                    BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        Optional<BookFilterIndex.Matches> matches = filterInMemory(title, genre, authorName, minPrice, maxPrice, pageable);
+        if (matches.isPresent()) {
+            return new PageImpl<>(findAllInOrder(matches.get().ids()), pageable, matches.get().total());
+        }
+        Optional<Specification<Book>> spec = filterSpecification(title, genre, authorName, minPrice, maxPrice);
+        if (spec.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return bookRepository.findAll(spec.get(), pageable);
+    }
+    
+    // Filter books without the COUNT query: reads size + 1 rows to know whether a next page exists
+    @Transactional(readOnly = true)
+    public Slice<Book> filterBooksSlice(String title, String genre, String authorName,
+                                        BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        Optional<BookFilterIndex.Matches> matches = filterInMemory(title, genre, authorName, minPrice, maxPrice, pageable);
+        if (matches.isPresent()) {
+            List<Long> ids = matches.get().ids();
+            return new SliceImpl<>(findAllInOrder(ids), pageable, offsetOf(pageable) + ids.size() < matches.get().total());
+        }
+        Optional<Specification<Book>> spec = filterSpecification(title, genre, authorName, minPrice, maxPrice);
+        if (spec.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root)
+                .where(spec.get().toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        
+        EntityGraph<Book> withAuthor = entityManager.createEntityGraph(Book.class);
+        withAuthor.addAttributeNodes("author");
+        List<Book> rows = entityManager.createQuery(query)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, withAuthor)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+    
+    // Filter books as a page whose total comes from the count cache (one COUNT per filter combination and write)
+    @Transactional(readOnly = true)
+    public Page<Book> filterBooksWithCachedCount(String title, String genre, String authorName,
+                                                 BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        if (filterIndex.isEnabled() && filterIndex.canSort(pageable.getSort())) {
+            // The index counts every match anyway
+            return filterBooks(title, genre, authorName, minPrice, maxPrice, pageable);
+        }
+        Slice<Book> slice = filterBooksSlice(title, genre, authorName, minPrice, maxPrice, pageable);
+        if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            // Last page: the total is known without counting
+            return new PageImpl<>(slice.getContent(), pageable, pageable.getOffset() + slice.getNumberOfElements());
+        }
+        
+        List<Object> key = Arrays.asList(title, genre, authorName, minPrice, maxPrice);
+        Cache counts = cacheManager.getCache(CacheConfig.BOOK_FILTER_COUNTS);
+        Long total = counts.get(key, () -> filterSpecification(title, genre, authorName, minPrice, maxPrice)
+                .map(bookRepository::count)
+                .orElse(0L));
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+    
+    // Evaluate a filter both in the columnar filter index and in the database and compare the matched ids.
+    // Writes committed while this runs can show up as differences.
+    @Transactional(readOnly = true)
+    public FilterConsistencyDTO checkFilterIndex(String title, String genre, String authorName,
+                                                 BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!filterIndex.isEnabled()) {
+            throw new IllegalStateException("Columnar filter index is disabled");
+        }
+        Set<Long> indexed = new TreeSet<>(filterInMemory(title, genre, authorName, minPrice, maxPrice, Pageable.unpaged())
+                .map(BookFilterIndex.Matches::ids)
+                .orElse(List.of()));
+        Set<Long> stored = new TreeSet<>(filterSpecification(title, genre, authorName, minPrice, maxPrice)
+                .map(this::findIds)
+                .orElse(List.of()));
+        List<Long> missing = stored.stream().filter(id -> !indexed.contains(id)).limit(MAX_REPORTED_IDS).toList();
+        List<Long> unexpected = indexed.stream().filter(id -> !stored.contains(id)).limit(MAX_REPORTED_IDS).toList();
+        return new FilterConsistencyDTO(stored.size(), indexed.size(), missing, unexpected,
+                missing.isEmpty() && unexpected.isEmpty());
+    }
+    
+    // Delete book by ID
+    public void deleteBook(Long id) {
+        bookRepository.findById(id).ifPresent(book -> {
+            evictFromCache(id, book.getIsbn());
+            bookRepository.delete(book);
+            eventPublisher.publishEvent(new BookChangedEvent(id, null));
+        });
+    }
+    
+    // Reserve stock with one conditional UPDATE (quantity >= amount checked by the database, so
+    // concurrent reservations cannot oversell or lose updates). False when too few are left or no such book.
+    public boolean reserveStock(Long id, int amount) {
+        entityCacheEvictor.lockUntilCompletion(Book.class, List.of(id));
+        if (bookRepository.reserveStock(id, amount) == 0) {
+            return false;
+        }
+        stockChanged(id);
+        return true;
+    }
+    
+    // Put reserved stock back with one UPDATE. False when there is no such book.
+    public boolean releaseStock(Long id, int amount) {
+        entityCacheEvictor.lockUntilCompletion(Book.class, List.of(id));
+        if (bookRepository.releaseStock(id, amount) == 0) {
+            return false;
+        }
+        stockChanged(id);
+        return true;
+    }
+    
+    // Check if book exists
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return bookRepository.existsById(id);
+    }
+    
+    // Count total books
+    @Transactional(readOnly = true)
+    public long countBooks() {
+        return bookRepository.count();
+    }
+    
+    // Helper: The filter evaluated by the columnar index (ids of the page and total), when it is enabled
+    // and can order by the sort; title candidates come from the search index as in filterSpecification
+    private Optional<BookFilterIndex.Matches> filterInMemory(String title, String genre, String authorName,
+                                                             BigDecimal minPrice, BigDecimal maxPrice,
+                                                             Pageable pageable) {
+        if (!filterIndex.isEnabled()) {
+            return Optional.empty();
+        }
+        return filterIndex.filter(title, titleCandidates(title).orElse(null), genre, authorName, minPrice, maxPrice,
+                pageable.getSort(), offsetOf(pageable), limitOf(pageable));
+    }
+    
+    // Helper: Books that can match a selective title filter (a superset of the LIKE matches, from the
+    // search index), so the database checks LIKE on those rows only; empty when the index cannot tell
+    private Optional<Set<Long>> titleCandidates(String title) {
+        return title != null && !title.isEmpty()
+                ? searchIndex.titleCandidates(title, MAX_TITLE_CANDIDATES)
+                : Optional.empty();
+    }
+    
+    // Helper: Ids of every book matching a Specification
+    private List<Long> findIds(Specification<Book> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root.get("id")).where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+    
+    // Helper: Specification for the filter criteria; empty when the search index proves there is no match
+    private Optional<Specification<Book>> filterSpecification(String title, String genre, String authorName,
+                                                              BigDecimal minPrice, BigDecimal maxPrice) {
+        Optional<Set<Long>> titleMatches = titleCandidates(title);
+        if (titleMatches.isPresent() && titleMatches.get().isEmpty()) {
+            return Optional.empty();
+        }
         
         Specification<Book> spec = (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
             
-            // Filter by title
+            // Filter by title (contains); the candidates only spare the database the full LIKE scan
             if (title != null && !title.isEmpty()) {
+                titleMatches.ifPresent(ids -> predicates.add(root.get("id").in(ids)));
                 predicates.add(cb.like(cb.lower(root.get("title")), "%" + title.toLowerCase() + "%"));
             }
             
@@ -150,24 +561,147 @@ public class BookService {
             
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-        
-        return bookRepository.findAll(spec, pageable);
+        return Optional.of(spec);
     }
     
-    // Delete book by ID
-    public void deleteBook(Long id) {
-        bookRepository.deleteById(id);
+    // Helper: Drop cached DTOs of a book and the filter totals (applied after the transaction commits)
+    private void evictFromCache(Long id, String isbn) {
+        evictBookDTOs(id, isbn);
+        clearFilterCounts();
     }
     
-    // Check if book exists
-    @Transactional(readOnly = true)
-    public boolean existsById(Long id) {
-        return bookRepository.existsById(id);
+    // Helper: Drop cached DTOs of a book (applied after the transaction commits)
+    private void evictBookDTOs(Long id, String isbn) {
+        Cache byId = cacheManager.getCache(CacheConfig.BOOKS_BY_ID);
+        Cache byIsbn = cacheManager.getCache(CacheConfig.BOOKS_BY_ISBN);
+        if (byId != null && id != null) {
+            byId.evict(id);
+        }
+        if (byIsbn != null && isbn != null) {
+            byIsbn.evict(isbn);
+        }
     }
     
-    // Count total books
-    @Transactional(readOnly = true)
-    public long countBooks() {
-        return bookRepository.count();
+    // Helper: Any book write may change filter totals (applied after the transaction commits)
+    private void clearFilterCounts() {
+        Cache counts = cacheManager.getCache(CacheConfig.BOOK_FILTER_COUNTS);
+        if (counts != null) {
+            counts.clear();
+        }
+    }
+    
+    // Helper: Load books by id, keeping the order of the ids (author fetched). Unpaged lists can
+    // hold the whole catalog, so the ids go in chunks of BULK_CHUNK_SIZE: one IN list per query
+    // stays far below the bind parameter limit (65,535 on MySQL)
+    private List<Book> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> books = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            bookRepository.findAllById(chunk).forEach(book -> books.put(book.getId(), book));
+        }
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    private static long offsetOf(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getOffset() : 0;
+    }
+    
+    private static int limitOf(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+    }
+    
+    // Helper: The cached DTOs carry the quantity (filter totals do not depend on it); stats take the
+    // quantity and version just written (the row is locked by the stock statement until commit)
+    private void stockChanged(Long id) {
+        entityCacheEvictor.invalidateQueriesAfterCompletion(Book.class);
+        bookRepository.findStockById(id).ifPresent(stock -> {
+            evictBookDTOs(id, stock.getIsbn());
+            eventPublisher.publishEvent(new BookStockChangedEvent(id, stock.getQuantity(), stock.getVersion()));
+        });
+    }
+    
+    // Helper: Run a read in its own read-only transaction. Coalesced lookups start the transaction
+    // only in the caller that runs the query, so waiting callers hold no connection.
+    private <T> T readOnly(Supplier<T> read) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(true);
+        return template.execute(status -> read.get());
+    }
+    
+    // Helper: Validate and insert one bulk chunk in its own transaction
+    private void insertChunk(List<BookRequestDTO> chunk, BulkImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        int offset = result.getReceived();
+        result.setReceived(offset + chunk.size());
+        
+        try {
+            int created = transactionTemplate.execute(status -> writeChunk(chunk, offset, result));
+            result.setCreated(result.getCreated() + created);
+        } catch (RuntimeException e) {
+            // The chunk was rolled back: report every item that had not already failed validation
+            Set<Integer> rejected = new HashSet<>();
+            result.getErrors().forEach(error -> rejected.add(error.getIndex()));
+            for (int i = 0; i < chunk.size(); i++) {
+                if (!rejected.contains(offset + i)) {
+                    result.addError(offset + i, chunk.get(i).getIsbn(), "Chunk rolled back: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    // Helper: Validate and insert a chunk inside the current transaction
+    // (authors resolved with one query, ISBNs checked with one query, inserts batched).
+    // Returns how many were inserted; the caller counts them once the transaction has committed.
+    private int writeChunk(List<BookRequestDTO> chunk, int offset, BulkImportResultDTO result) {
+        Set<Long> authorIds = new HashSet<>();
+        Set<String> isbns = new HashSet<>();
+        for (BookRequestDTO dto : chunk) {
+            if (dto.getAuthorId() != null) {
+                authorIds.add(dto.getAuthorId());
+            }
+            if (dto.getIsbn() != null) {
+                isbns.add(dto.getIsbn());
+            }
+        }
+        Map<Long, Author> authors = authorRepository.findAllById(authorIds)
+                .stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        Set<String> takenIsbns = isbns.isEmpty()
+                ? new HashSet<>()
+                : bookRepository.findExistingIsbns(isbns);
+        
+        // Imported books are not put into the second-level cache (a large import would only churn it)
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        
+        List<Book> books = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            BookRequestDTO dto = chunk.get(i);
+            if (dto.getTitle() == null || dto.getTitle().isBlank()) {
+                result.addError(offset + i, dto.getIsbn(), "Title is required");
+            } else if (dto.getAuthorId() != null && !authors.containsKey(dto.getAuthorId())) {
+                result.addError(offset + i, dto.getIsbn(), "Author not found with id: " + dto.getAuthorId());
+            } else if (dto.getIsbn() != null && !takenIsbns.add(dto.getIsbn())) {
+                result.addError(offset + i, dto.getIsbn(), "Duplicate ISBN: " + dto.getIsbn());
+            } else {
+                Book book = bookMapper.toEntity(dto);
+                book.setAuthor(authors.get(dto.getAuthorId()));
+                books.add(book);
+            }
+        }
+        
+        bookRepository.saveAll(books);
+        entityManager.flush();
+        books.forEach(book -> eventPublisher.publishEvent(new BookChangedEvent(book.getId(), book, true)));
+        clearFilterCounts();
+        entityManager.clear();
+        return books.size();
     }
 }
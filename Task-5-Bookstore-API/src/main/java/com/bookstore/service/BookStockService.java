@@ -0,0 +1,110 @@
+package com.bookstore.service;
+
+import com.bookstore.event.BookChangedEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Book Stock Service
+ *
+ * Reserve and release stock without loading and saving the book, so concurrent
+ * buyers of the same book neither lose updates nor oversell.
+ * By default every call is one conditional UPDATE (BookService.reserveStock);
+ * with bookstore.stock.striped.enabled=true reservations are served from a
+ * StripedStockCounter that claims stock from the database in leases.
+ *
+ * Key Concepts:
+ * - Conditional atomic decrement (UPDATE ... WHERE quantity >= ?)
+ * - Optional in-memory striped front, unused leases flushed back periodically and on shutdown
+ * - A book update or delete drops its lease (the new quantity is authoritative)
+ * - At most MAX_QUANTITY units per call: releases are not matched to reservations,
+ *   so the cap bounds what one call can add to the stock
+ */
+@Service
+public class BookStockService implements DisposableBean {
+
+    // Most units one reservation or release may move
+    public static final int MAX_QUANTITY = 1000;
+
+    @Autowired
+    private BookService bookService;
+
+    private final boolean striped;
+    private final int leaseSize;
+    private final int stripes;
+    private final Duration flushInterval;
+
+    private StripedStockCounter counter;
+    private ScheduledExecutorService flusher;
+
+    public BookStockService(@Value("${bookstore.stock.striped.enabled}") boolean striped,
+                            @Value("${bookstore.stock.striped.lease-size}") int leaseSize,
+                            @Value("${bookstore.stock.striped.stripes}") int stripes,
+                            @Value("${bookstore.stock.striped.flush-interval}") Duration flushInterval) {
+        this.striped = striped;
+        this.leaseSize = leaseSize;
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.flushInterval = flushInterval;
+    }
+
+    // Start the striped front and its flush schedule when enabled
+    @PostConstruct
+    public void start() {
+        if (!striped) {
+            return;
+        }
+        counter = new StripedStockCounter(bookService, leaseSize, stripes);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-lease-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(counter::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Reserve amount units. False when too few are left or there is no such book.
+    public boolean reserve(Long bookId, int amount) {
+        checkAmount(amount);
+        return counter != null ? counter.reserve(bookId, amount) : bookService.reserveStock(bookId, amount);
+    }
+
+    // Release amount previously reserved units. False when there is no such book.
+    public boolean release(Long bookId, int amount) {
+        checkAmount(amount);
+        return (counter != null && counter.release(bookId, amount)) || bookService.releaseStock(bookId, amount);
+    }
+
+    // A saved or deleted book replaces the quantity the lease was taken from
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (counter != null) {
+            counter.discard(event.getBookId());
+        }
+    }
+
+    // Return the unused leases before the database goes away
+    @Override
+    public void destroy() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            counter.flush();
+        }
+    }
+
+    // Helper: Amounts must be positive and at most MAX_QUANTITY
+    private static void checkAmount(int amount) {
+        if (amount < 1 || amount > MAX_QUANTITY) {
+            throw new IllegalArgumentException("Quantity must be between 1 and " + MAX_QUANTITY);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.bookstore.service;
+
+import com.bookstore.event.BookChangedEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Book Versions
+ *
+ * Last applied @Version of every book in one in-memory read model.
+ * AFTER_COMMIT listeners of different transactions run on different threads
+ * in any order, so a full-state BookChangedEvent may arrive after a newer one;
+ * applying it would let the older state win until the next rebuild.
+ *
+ * Key Concepts:
+ * - A state is applied only when its version is newer than the last applied one
+ * - Deletes leave a tombstone: ids are never reused, so any state arriving
+ *   after the delete is older than it
+ * - Check and change run inside ConcurrentHashMap.compute, atomic per book id
+ * - Seeded by the rebuild of the read model, cleared with it
+ */
+final class BookVersions {
+
+    // Version recorded for a deleted book (newer than any state)
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    // Record the version of a book as loaded by a rebuild
+    void seed(Long id, Long version) {
+        if (version != null) {
+            versions.put(id, version);
+        }
+    }
+
+    // Run the change when the event carries a newer state (or the delete) of its book.
+    // False when the event is stale and was ignored.
+    boolean applyIfNewer(BookChangedEvent event, Runnable change) {
+        boolean deleted = event.isDeleted();
+        Long version = deleted ? null : event.getBook().getVersion();
+        boolean[] applied = {false};
+        versions.compute(event.getBookId(), (key, last) -> {
+            if (last != null && (last == DELETED || (!deleted && version != null && version <= last))) {
+                return last;
+            }
+            change.run();
+            applied[0] = true;
+            return deleted ? DELETED : version;
+        });
+        return applied[0];
+    }
+
+    // Run the change of a partial update (stock) when its version is newer than the last applied state.
+    // The change returns false when there is no state to update; its version is not recorded then.
+    boolean updateIfNewer(Long id, long version, BooleanSupplier change) {
+        boolean[] applied = {false};
+        versions.compute(id, (key, last) -> {
+            if ((last != null && version <= last) || !change.getAsBoolean()) {
+                return last;
+            }
+            applied[0] = true;
+            return version;
+        });
+        return applied[0];
+    }
+
+    void clear() {
+        versions.clear();
+    }
+}
@@ -0,0 +1,378 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.CatalogChangeDTO;
+import com.bookstore.repository.CatalogChangeRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Catalog Change Feed
+ *
+ * Reads the catalog_changes outbox in offset order and streams it to subscribers
+ * (Server-Sent Events, GET /api/changes/stream) or hands out pages (GET /api/changes).
+ *
+ * A relay thread polls the table every bookstore.changes.poll-interval, and right after every
+ * commit in this application, and advances the head: the offset up to which every change is
+ * committed. Offsets come from an identity column and are assigned before commit, so a missing
+ * offset may still be in flight; the relay waits up to bookstore.changes.gap-timeout for it
+ * before skipping it (a rolled back transaction leaves a permanent gap). Skipped offsets are kept
+ * as [from, to) ranges, however many a gap spans, and queried again on every poll for
+ * bookstore.changes.gap-recheck: a change that commits after its offset was skipped is moved to
+ * the end of the log with a new offset, so it is delivered late but not lost. A change that
+ * commits later than gap-recheck after its offset was skipped is never delivered.
+ *
+ * Key Concepts:
+ * - Readers never go past the head, so every consumer sees the same changes in the same order
+ * - The last bookstore.changes.buffer-size changes are kept in memory for live subscribers;
+ *   subscribers further behind catch up from the table in batch-size pages
+ * - One thread per subscriber (at most max-subscribers); a batch of events is written with one flush
+ * - Resume from any offset still kept (retention); older offsets get a "reset" event
+ * - At-least-once: a late change may reach a subscriber that read its old offset from the table twice
+ * - Heartbeat comments keep idle connections open through proxies
+ */
+@Service
+public class CatalogChangeFeed implements SmartInitializingSingleton, DisposableBean {
+
+    // Retention cleanup runs this often
+    private static final long RETENTION_CHECK_MINUTES = 60;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final Duration gapTimeout;
+    private final Duration gapRecheck;
+    private final int bufferSize;
+    private final int batchSize;
+    private final int maxSubscribers;
+    private final Duration heartbeat;
+    private final Duration retention;
+
+    // Recent changes by offset (everything up to head)
+    private final ConcurrentSkipListMap<Long, CatalogChangeDTO> recent = new ConcurrentSkipListMap<>();
+    private final AtomicInteger recentSize = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition advanced = lock.newCondition();
+    private volatile long head;
+    private long gapSince;
+
+    // Offset ranges skipped at a gap, by their first offset (relay thread only)
+    private final NavigableMap<Long, SkippedRange> skipped = new TreeMap<>();
+
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private ScheduledExecutorService relay;
+    private ExecutorService streams;
+    private volatile boolean running;
+
+    public CatalogChangeFeed(@Value("${bookstore.changes.enabled}") boolean enabled,
+                             @Value("${bookstore.changes.poll-interval}") Duration pollInterval,
+                             @Value("${bookstore.changes.gap-timeout}") Duration gapTimeout,
+                             @Value("${bookstore.changes.gap-recheck}") Duration gapRecheck,
+                             @Value("${bookstore.changes.buffer-size}") int bufferSize,
+                             @Value("${bookstore.changes.batch-size}") int batchSize,
+                             @Value("${bookstore.changes.max-subscribers}") int maxSubscribers,
+                             @Value("${bookstore.changes.heartbeat}") Duration heartbeat,
+                             @Value("${bookstore.changes.retention}") Duration retention) {
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.gapTimeout = gapTimeout;
+        this.gapRecheck = gapRecheck;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeat = heartbeat;
+        this.retention = retention;
+    }
+
+    // Start at the current end of the table and begin polling
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        head = catalogChangeRepository.findMaxOffset().orElse(0L);
+        running = true;
+        relay = Executors.newSingleThreadScheduledExecutor(daemonThreads("change-feed-relay"));
+        streams = Executors.newCachedThreadPool(daemonThreads("change-feed-stream"));
+        relay.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        relay.scheduleWithFixedDelay(this::purge, 0, RETENTION_CHECK_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Offset of the last change every reader can see
+    public long getHead() {
+        return head;
+    }
+
+    // Poll right away (called after a transaction with changes committed); coalesces bursts of calls
+    public void wakeUp() {
+        if (running && wakeUpPending.compareAndSet(false, true)) {
+            relay.execute(() -> {
+                wakeUpPending.set(false);
+                poll();
+            });
+        }
+    }
+
+    // Get up to limit changes after the given offset, oldest first. Throws IllegalStateException when disabled.
+    public List<CatalogChangeDTO> getChanges(long after, int limit) {
+        if (!enabled) {
+            throw new IllegalStateException("The change feed is disabled (bookstore.changes.enabled)");
+        }
+        return read(after, limit);
+    }
+
+    // Stream changes after the given offset (the current head when null) to an SSE emitter until the client leaves.
+    // Throws IllegalStateException when disabled or when max-subscribers streams are open.
+    public SseEmitter subscribe(Long after) {
+        if (!enabled) {
+            throw new IllegalStateException("The change feed is disabled (bookstore.changes.enabled)");
+        }
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new IllegalStateException("Too many change feed subscribers (bookstore.changes.max-subscribers)");
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(error -> open.set(false));
+        long start = after != null ? after : head;
+        streams.execute(() -> {
+            try {
+                stream(emitter, open, start);
+            } finally {
+                subscribers.decrementAndGet();
+            }
+        });
+        return emitter;
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (relay != null) {
+            relay.shutdownNow();
+            streams.shutdownNow();
+        }
+    }
+
+    // Subscriber loop: send what is there, then wait for the head to move (or send a heartbeat)
+    private void stream(SseEmitter emitter, AtomicBoolean open, long after) {
+        long offset = after;
+        try {
+            // Commits the response headers, so the client sees the stream open before the first change
+            emitter.send(SseEmitter.event().comment("connected"));
+            long oldest = catalogChangeRepository.findMinOffset().orElse(head + 1);
+            if (offset < oldest - 1) {
+                // Changes in between were removed by retention: the consumer has to start over
+                emitter.send(SseEmitter.event().id(Long.toString(head)).name("reset").data(head));
+                offset = head;
+            }
+            while (open.get() && running) {
+                List<CatalogChangeDTO> batch = read(offset, batchSize);
+                if (batch.isEmpty()) {
+                    if (!awaitHead(offset, heartbeat)) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    continue;
+                }
+                Set<ResponseBodyEmitter.DataWithMediaType> events = new LinkedHashSet<>();
+                for (CatalogChangeDTO change : batch) {
+                    events.addAll(SseEmitter.event()
+                            .id(Long.toString(change.getOffset()))
+                            .name("change")
+                            .data(change, MediaType.APPLICATION_JSON)
+                            .build());
+                }
+                emitter.send(events);
+                offset = batch.get(batch.size() - 1).getOffset();
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (the emitter is already completed)
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } catch (DataAccessException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    // Helper: Changes after offset up to the head, from memory when they are still there.
+    // The relay evicts the oldest changes while this walks the buffer, so the buffer still has to
+    // reach back to offset once the walk is done: only the smallest offsets are ever evicted, so
+    // every change after offset was then present for the whole walk and has been seen.
+    // Otherwise the same range is read from the table.
+    private List<CatalogChangeDTO> read(long after, int limit) {
+        long upTo = head;
+        if (after >= upTo) {
+            return List.of();
+        }
+        if (bufferReaches(after)) {
+            List<CatalogChangeDTO> changes = new ArrayList<>(Math.min(limit, recentSize.get()));
+            for (CatalogChangeDTO change : recent.tailMap(after, false).headMap(upTo, true).values()) {
+                changes.add(change);
+                if (changes.size() == limit) {
+                    break;
+                }
+            }
+            if (bufferReaches(after)) {
+                return changes;
+            }
+        }
+        return catalogChangeRepository.findAfter(after, upTo, limit);
+    }
+
+    // Helper: Whether the buffer still holds every change after offset (its oldest is at most offset + 1)
+    private boolean bufferReaches(long after) {
+        Map.Entry<Long, CatalogChangeDTO> first = recent.firstEntry();
+        return first != null && after >= first.getKey() - 1;
+    }
+
+    // Helper: Wait until the head passes offset; false on timeout
+    private boolean awaitHead(long offset, Duration timeout) throws InterruptedException {
+        long nanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (head <= offset) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = advanced.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Relay: move the head over newly committed changes, stopping at a gap until gap-timeout passed
+    private void poll() {
+        try {
+            recoverSkipped();
+            List<CatalogChangeDTO> rows;
+            do {
+                rows = catalogChangeRepository.findAfter(head, Long.MAX_VALUE, batchSize);
+                long next = head;
+                for (CatalogChangeDTO row : rows) {
+                    if (row.getOffset() != next + 1) {
+                        long now = System.nanoTime();
+                        if (gapSince == 0) {
+                            gapSince = now;
+                            // Look again as soon as the wait is over, not only on the next poll
+                            relay.schedule(this::poll, gapTimeout.toNanos(), TimeUnit.NANOSECONDS);
+                        }
+                        if (now - gapSince < gapTimeout.toNanos()) {
+                            break;
+                        }
+                        skip(next, row.getOffset(), now);
+                    }
+                    gapSince = 0;
+                    recent.put(row.getOffset(), row);
+                    next = row.getOffset();
+                    if (recentSize.incrementAndGet() > bufferSize) {
+                        recent.pollFirstEntry();
+                        recentSize.decrementAndGet();
+                    }
+                }
+                if (next == head) {
+                    return;
+                }
+                advance(next);
+            } while (rows.size() == batchSize);
+        } catch (DataAccessException e) {
+            // Database unavailable: try again on the next poll
+        }
+    }
+
+    // Helper: Remember the missing offsets between the head and the next change for gap-recheck
+    private void skip(long last, long next, long now) {
+        skipped.put(last + 1, new SkippedRange(next, now));
+    }
+
+    // Relay: Move changes that committed after their offset was skipped to the end of the log, where
+    // this poll picks them up; ranges still checked after gap-recheck were rolled back and are forgotten.
+    // A moved change leaves its old offset, so a range stays as it is until it expires.
+    private void recoverSkipped() {
+        if (skipped.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        skipped.values().removeIf(range -> now - range.since() > gapRecheck.toNanos());
+        for (Map.Entry<Long, SkippedRange> range : skipped.entrySet()) {
+            List<Long> offsets;
+            do {
+                offsets = catalogChangeRepository.findOffsetsBetween(range.getKey(), range.getValue().to(), batchSize);
+                offsets.forEach(catalogChangeRepository::moveToEnd);
+            } while (offsets.size() == batchSize);
+        }
+    }
+
+    // Helper: Publish a new head to waiting subscribers
+    private void advance(long offset) {
+        lock.lock();
+        try {
+            head = offset;
+            advanced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove changes older than the retention
+    private void purge() {
+        try {
+            catalogChangeRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        } catch (DataAccessException e) {
+            // Try again on the next check
+        }
+    }
+
+    // Offsets up to (excluding) to, skipped at the System.nanoTime() since
+    private record SkippedRange(long to, long since) {
+    }
+
+    // Helper: Named daemon threads
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.CatalogChangeDTO;
+import com.bookstore.event.AuthorChangedEvent;
+import com.bookstore.event.BookChangedEvent;
+import com.bookstore.event.BookStockChangedEvent;
+import com.bookstore.repository.CatalogChangeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog Change Outbox
+ *
+ * Records every book and author create, update and delete in the catalog_changes table,
+ * in the same transaction as the change itself (transactional outbox), so the change feed
+ * never reports a change that rolled back and never misses one that committed.
+ *
+ * Key Concepts:
+ * - Listens to BookChangedEvent / BookStockChangedEvent / AuthorChangedEvent while the
+ *   transaction is still open (@EventListener, not AFTER_COMMIT)
+ * - The changes of a transaction are written in one JDBC batch right before it commits,
+ *   so the offsets are assigned close to commit order (see CatalogChangeFeed for gaps)
+ * - After commit the feed is woken up, so subscribers do not wait for the next poll
+ * - Without a transaction the change is written right away
+ */
+@Component
+public class CatalogChangeOutbox {
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private CatalogChangeFeed catalogChangeFeed;
+
+    private final boolean enabled;
+
+    public CatalogChangeOutbox(@Value("${bookstore.changes.enabled}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Book created, updated or deleted
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        record(CatalogChangeDTO.EntityType.BOOK, event.getBookId(),
+                changeType(event.isCreated(), event.isDeleted()));
+    }
+
+    // Stock reserved or released (an update of the book's quantity)
+    @EventListener
+    public void onBookStockChanged(BookStockChangedEvent event) {
+        record(CatalogChangeDTO.EntityType.BOOK, event.getBookId(), CatalogChangeDTO.ChangeType.UPDATED);
+    }
+
+    // Author created, updated or deleted
+    @EventListener
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        record(CatalogChangeDTO.EntityType.AUTHOR, event.getAuthorId(),
+                changeType(event.isCreated(), event.isDeleted()));
+    }
+
+    // Helper: Queue the change for the current transaction, or write it right away without one
+    private void record(CatalogChangeDTO.EntityType entityType, Long entityId, CatalogChangeDTO.ChangeType changeType) {
+        if (!enabled) {
+            return;
+        }
+        CatalogChangeDTO change = new CatalogChangeDTO(0, entityType, entityId, changeType, LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogChangeRepository.insertAll(List.of(change));
+            catalogChangeFeed.wakeUp();
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    private static CatalogChangeDTO.ChangeType changeType(boolean created, boolean deleted) {
+        if (deleted) {
+            return CatalogChangeDTO.ChangeType.DELETED;
+        }
+        return created ? CatalogChangeDTO.ChangeType.CREATED : CatalogChangeDTO.ChangeType.UPDATED;
+    }
+
+    // Changes of one transaction, written just before it commits
+    private final class PendingChanges implements TransactionSynchronization {
+        private final List<CatalogChangeDTO> changes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            catalogChangeRepository.insertAll(changes);
+        }
+
+        @Override
+        public void afterCommit() {
+            catalogChangeFeed.wakeUp();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogChangeOutbox.this);
+        }
+    }
+}
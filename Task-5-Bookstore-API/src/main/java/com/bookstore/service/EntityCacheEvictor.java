@@ -0,0 +1,118 @@
+package com.bookstore.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.CachedDomainDataAccess;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Entity Cache Evictor
+ *
+ * Keeps the Hibernate second-level cache correct around statements Hibernate does not track
+ * (native updates and deletes with their own query space), the same way Hibernate handles its
+ * own entity writes: the touched entries are soft-locked before the statement and unlocked when
+ * the transaction completes. A locked entry is a miss, and a load that read the row before the
+ * unlock cannot put it back, so the old row is never cached again once the new one is committed.
+ * Cached query results hold the selected column values (not just ids), so the entity's
+ * tables are marked as written in the update timestamps region, the same as after any
+ * entity write: only the cached queries reading those tables miss, every other region stays.
+ *
+ * Key Concepts:
+ * - Lock before the statement, inside its transaction (IllegalStateException without one)
+ * - Entries stay locked until the transaction commits or rolls back (at most the region lock timeout)
+ * - Tables are invalidated when the transaction completes, only for statements that changed rows:
+ *   a query that ran before that is older than the invalidation and misses
+ * - Query results are never dropped wholesale (no evictQueryRegions)
+ */
+@Component
+public class EntityCacheEvictor {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Lock the cached entities until the current transaction completes. Call before the statement that changes them.
+    public void lockUntilCompletion(Class<?> entityClass, Collection<?> ids) {
+        SessionFactoryImplementor sessionFactory = sessionFactory();
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        lockUntilCompletion(access, ids, id -> access.generateCacheKey(id, persister, sessionFactory, null));
+    }
+
+    // Lock cached collections (role e.g. "com.bookstore.entity.Author.books") of the given owners
+    // until the current transaction completes. Call before the statement that changes them.
+    public void lockCollectionsUntilCompletion(String role, Collection<?> ownerIds) {
+        SessionFactoryImplementor sessionFactory = sessionFactory();
+        CollectionPersister persister = sessionFactory.getMappingMetamodel().getCollectionDescriptor(role);
+        CollectionDataAccess access = persister.getCacheAccessStrategy();
+        lockUntilCompletion(access, ownerIds, id -> access.generateCacheKey(id, persister, sessionFactory, null));
+    }
+
+    // Record a write to the tables of the entity when the current transaction completes, so cached
+    // queries reading them miss (no-op without the query cache). Call once the statement changed rows.
+    public void invalidateQueriesAfterCompletion(Class<?> entityClass) {
+        SessionFactoryImplementor sessionFactory = sessionFactory();
+        if (!sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            return;
+        }
+        List<String> tables = new ArrayList<>();
+        sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass).visitQuerySpaces(tables::add);
+        TimestampsCache timestamps = sessionFactory.getCache().getTimestampsCache();
+        afterCompletion(session -> timestamps.invalidate(tables.toArray(new String[0]), session));
+    }
+
+    // Helper: Lock the entries now and unlock them after the transaction
+    private void lockUntilCompletion(CachedDomainDataAccess access, Collection<?> ids, Function<Object, Object> cacheKey) {
+        if (access == null || ids.isEmpty()) {
+            return;
+        }
+        List<Object> keys = ids.stream().map(cacheKey).toList();
+        List<SoftLock> locks = new ArrayList<>(keys.size());
+        withSession(session -> keys.forEach(key -> locks.add(access.lockItem(session, key, null))));
+        afterCompletion(session -> {
+            for (int i = 0; i < keys.size(); i++) {
+                access.unlockItem(session, keys.get(i), locks.get(i));
+            }
+        });
+    }
+
+    // Helper: Run the cache operation when the current transaction completes (committed or rolled back)
+    private void afterCompletion(Consumer<SharedSessionContractImplementor> operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Second-level cache entries can only be locked inside a transaction");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                withSession(operation);
+            }
+        });
+    }
+
+    // Helper: Cache operations take a session, which only feeds statistics: a stateless one uses no connection
+    private void withSession(Consumer<SharedSessionContractImplementor> operation) {
+        try (StatelessSession session = sessionFactory().openStatelessSession()) {
+            operation.accept((SharedSessionContractImplementor) session);
+        }
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+}
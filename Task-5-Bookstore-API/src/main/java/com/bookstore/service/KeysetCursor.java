@@ -0,0 +1,164 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.CursorPageResponseDTO;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset Cursor
+ *
+ * Opaque continuation token for keyset (seek) pagination.
+ * The token stores the sort field, the direction and the (sortKey, id)
+ * of the last row returned, so the next page is read with
+ * WHERE (sortKey, id) > (?, ?) instead of skipping OFFSET rows.
+ *
+ * Key Concepts:
+ * - Keyset pagination (no OFFSET, no COUNT query)
+ * - Specification built from the last seen row
+ * - id as tie-breaker so the order is total; every sortable field has a (sortKey, id) index
+ * - NULL sort keys are ordered lowest (H2 and MySQL default)
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final Class<?> keyType;
+    private final Long lastId;
+    private final String lastValue;
+
+    private KeysetCursor(String sortBy, Sort.Direction direction, Class<?> keyType,
+                         Long lastId, String lastValue) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.keyType = keyType;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    // Build the cursor for a request: decode the token, or start at the first row.
+    // sortFields maps every sortable attribute to its Java type.
+    public static KeysetCursor of(String token, String sortBy, String sortDir,
+                                  Map<String, Class<?>> sortFields) {
+        if (token == null || token.isEmpty()) {
+            if (!sortFields.containsKey(sortBy)) {
+                throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+            }
+            Sort.Direction direction = sortDir.equalsIgnoreCase("desc")
+                    ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            return new KeysetCursor(sortBy, direction, sortFields.get(sortBy), null, null);
+        }
+
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+
+        // Format: direction|sortBy|lastId|lastValue (lastValue is "" for NULL, else "=" + value)
+        String[] parts = decoded.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4 || !sortFields.containsKey(parts[1])) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            String value = parts[3].isEmpty() ? null : parts[3].substring(1);
+            return new KeysetCursor(parts[1], Sort.Direction.fromString(parts[0]),
+                    sortFields.get(parts[1]), Long.valueOf(parts[2]), value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+    }
+
+    // Sort by the key, then by id in the same direction
+    public Sort toSort() {
+        if ("id".equals(sortBy)) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+
+    // Predicate selecting only rows that come after the last seen row
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T> Specification<T> toSpecification() {
+        return (root, query, cb) -> {
+            if (lastId == null) {
+                return null;
+            }
+
+            boolean ascending = direction.isAscending();
+            Path<Long> id = root.get("id");
+            Predicate idAfter = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+            if ("id".equals(sortBy)) {
+                return idAfter;
+            }
+
+            Path<Comparable> key = root.get(sortBy);
+            if (lastValue == null) {
+                // Still inside the NULL group, which sorts first ascending and last descending
+                Predicate inNullGroup = cb.and(cb.isNull(key), idAfter);
+                return ascending ? cb.or(inNullGroup, cb.isNotNull(key)) : inNullGroup;
+            }
+
+            // key >= value AND (key > value OR id > lastId): the leading bound lets the database
+            // start the (sortKey, id) index range at the last seen row instead of the first one
+            Comparable value = parseValue(lastValue);
+            Predicate fromKey = ascending ? cb.greaterThanOrEqualTo(key, value) : cb.lessThanOrEqualTo(key, value);
+            Predicate keyAfter = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+            Predicate after = cb.and(fromKey, cb.or(keyAfter, idAfter));
+            return ascending ? after : cb.or(after, cb.isNull(key));
+        };
+    }
+
+    // Turn size + 1 fetched rows into a page and the token for the next one
+    public <T> CursorPageResponseDTO<T> toPage(List<T> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            BeanWrapperImpl last = new BeanWrapperImpl(content.get(content.size() - 1));
+            nextCursor = encode(last.getPropertyValue("id"), last.getPropertyValue(sortBy));
+        }
+        return new CursorPageResponseDTO<>(content, content.size(), hasNext, nextCursor);
+    }
+
+    private String encode(Object id, Object value) {
+        String raw = direction.name() + SEPARATOR + sortBy + SEPARATOR + id + SEPARATOR
+                + (value == null ? "" : "=" + toText(value));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toText(Object value) {
+        return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Comparable parseValue(String text) {
+        if (keyType == String.class) {
+            return text;
+        } else if (keyType == Long.class) {
+            return Long.valueOf(text);
+        } else if (keyType == Integer.class) {
+            return Integer.valueOf(text);
+        } else if (keyType == BigDecimal.class) {
+            return new BigDecimal(text);
+        } else if (keyType == LocalDate.class) {
+            return LocalDate.parse(text);
+        }
+        throw new IllegalArgumentException("Unsupported sort key type: " + keyType.getSimpleName());
+    }
+}
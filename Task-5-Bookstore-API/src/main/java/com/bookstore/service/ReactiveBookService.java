@@ -0,0 +1,81 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.BookResponseDTO;
+import com.bookstore.repository.ReactiveBookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Reactive Book Service
+ *
+ * Read-only book operations on the R2DBC stack.
+ * Mirrors the read side of BookService without JPA: no persistence context,
+ * no @Transactional (single statements, auto-commit), results as Flux / Mono.
+ *
+ * Key Concepts:
+ * - Reactive types (Flux for many, Mono for zero or one)
+ * - Sort field whitelist mapped to SQL columns
+ * - Pagination with LIMIT/OFFSET and no COUNT query
+ */
+@Service
+public class ReactiveBookService {
+
+    // Fields accepted as sortBy, with their SQL columns
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "b.id",
+            "title", "b.title",
+            "isbn", "b.isbn",
+            "price", "b.price",
+            "quantity", "b.quantity",
+            "publishedDate", "b.published_date",
+            "genre", "b.genre",
+            "publisher", "b.publisher");
+
+    @Autowired
+    private ReactiveBookRepository reactiveBookRepository;
+
+    // Get all books
+    public Flux<BookResponseDTO> getAllBooks() {
+        return reactiveBookRepository.findAll();
+    }
+
+    // Get book by ID
+    public Mono<BookResponseDTO> getBookById(Long id) {
+        return reactiveBookRepository.findById(id);
+    }
+
+    // Get book by ISBN
+    public Mono<BookResponseDTO> getBookByIsbn(String isbn) {
+        return reactiveBookRepository.findByIsbn(isbn);
+    }
+
+    // Get books by genre
+    public Flux<BookResponseDTO> getBooksByGenre(String genre) {
+        return reactiveBookRepository.findByGenre(genre);
+    }
+
+    // Filter books with multiple criteria, one page (id breaks ties so pages do not overlap).
+    // Invalid paging or sort arguments throw before anything is queried.
+    public Flux<BookResponseDTO> filterBooks(String title, String genre, String authorName,
+                                             BigDecimal minPrice, BigDecimal maxPrice,
+                                             int page, int size, String sortBy, String sortDir) {
+        String column = SORT_COLUMNS.get(sortBy);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        }
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Invalid page or size");
+        }
+        String direction = sortDir.equalsIgnoreCase("desc") ? "DESC" : "ASC";
+        String orderBy = "id".equals(sortBy)
+                ? column + " " + direction
+                : column + " " + direction + ", b.id " + direction;
+        return reactiveBookRepository.filter(title, genre, authorName, minPrice, maxPrice,
+                orderBy, (long) page * size, size);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bookstore.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single Flight
+ *
+ * Deduplicates concurrent identical lookups: the first caller for a key runs
+ * the loader, callers arriving while it runs wait for and share its result
+ * (or its exception) instead of issuing the same query again.
+ * Nothing is kept once the call completes; caching is a separate concern.
+ *
+ * Key Concepts:
+ * - One in-flight CompletableFuture per key (ConcurrentHashMap.putIfAbsent)
+ * - Results are shared between threads, so loaders must return immutable
+ *   or detached values (DTOs, not managed entities)
+ * - Waiters should not hold a transaction (and its connection) while they wait
+ * - bookstore.lookup.calls counter, tagged lookup=name and outcome=executed|coalesced
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = counter(name, "executed", meterRegistry);
+        this.coalesced = counter(name, "coalesced", meterRegistry);
+    }
+
+    // Run the loader, or join the identical call already running
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.increment();
+            return join(running);
+        }
+        executed.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    // Helper: Wait for the leader, rethrowing its exception as is
+    private static <V> V join(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter counter(String name, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("bookstore.lookup.calls")
+                .description("Lookups that ran a query (executed) or shared one already in flight (coalesced)")
+                .tag("lookup", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
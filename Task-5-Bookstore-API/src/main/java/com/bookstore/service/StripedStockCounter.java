@@ -0,0 +1,185 @@
+package com.bookstore.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped Stock Counter
+ *
+ * In-memory front for stock reservations on hot books. Instead of one UPDATE per
+ * reservation, it claims a lease of leaseSize units from the database with one
+ * conditional UPDATE and hands them out from memory. The units of a book are spread
+ * over striped cells, so concurrent reservations mostly CAS on different cells.
+ *
+ * Key Concepts:
+ * - The database quantity never goes below 0 and leased units are already taken
+ *   from it, so reservations cannot oversell (also with several instances)
+ * - Striped AtomicLong cells, one lock per book only to claim a new lease, return units
+ *   or retire the lease. A ReentrantLock, not synchronized: the lease is claimed with a
+ *   JDBC call while holding it, which would pin a virtual thread to its carrier
+ * - flush() returns unused units; until then the database quantity is lower by the lease
+ * - Units leased when a process dies are lost (undercount, never oversell)
+ */
+public class StripedStockCounter {
+
+    private final BookService bookService;
+    private final int leaseSize;
+    private final int stripes;
+    private final Map<Long, StripedStock> stocks = new ConcurrentHashMap<>();
+
+    public StripedStockCounter(BookService bookService, int leaseSize, int stripes) {
+        this.bookService = bookService;
+        this.leaseSize = leaseSize;
+        this.stripes = stripes;
+    }
+
+    // Reserve from the leased units, claiming a new lease when they run out. False when the database has too few.
+    public boolean reserve(Long bookId, int amount) {
+        while (true) {
+            StripedStock stock = stocks.computeIfAbsent(bookId, id -> new StripedStock(stripes));
+            if (stock.tryTake(amount)) {
+                return true;
+            }
+            stock.lock.lock();
+            try {
+                if (stock.retired) {
+                    continue;
+                }
+                // Another thread may have claimed a lease while this one waited
+                if (stock.tryTake(amount)) {
+                    return true;
+                }
+                long pooled = stock.drain();
+                if (pooled < amount) {
+                    int needed = (int) (amount - pooled);
+                    // In long: a large lease-size plus the amount would overflow an int
+                    int claim = (int) Math.min((long) needed + leaseSize, Integer.MAX_VALUE);
+                    if (bookService.reserveStock(bookId, claim)) {
+                        pooled += claim;
+                    } else if (bookService.reserveStock(bookId, needed)) {
+                        pooled += needed;
+                    } else {
+                        stock.fill(pooled);
+                        return false;
+                    }
+                }
+                stock.fill(pooled - amount);
+                return true;
+            } finally {
+                stock.lock.unlock();
+            }
+        }
+    }
+
+    // Put units back into the lease of a book. False when nothing is leased for it or the lease was
+    // discarded meanwhile (release in the database then, units put into a retired lease would be lost).
+    public boolean release(Long bookId, int amount) {
+        StripedStock stock = stocks.get(bookId);
+        if (stock == null) {
+            return false;
+        }
+        stock.lock.lock();
+        try {
+            if (stock.retired) {
+                return false;
+            }
+            stock.put(amount);
+            return true;
+        } finally {
+            stock.lock.unlock();
+        }
+    }
+
+    // Return the unused units of every lease to the database
+    public void flush() {
+        stocks.forEach((bookId, stock) -> {
+            stock.lock.lock();
+            try {
+                long unused = stock.drain();
+                // Returned in int-sized parts: releases may have put back more than an int holds
+                while (unused > 0) {
+                    int part = (int) Math.min(unused, Integer.MAX_VALUE);
+                    if (!bookService.releaseStock(bookId, part)) {
+                        // The book was deleted meanwhile
+                        stocks.remove(bookId, stock);
+                        stock.retired = true;
+                        break;
+                    }
+                    unused -= part;
+                }
+            } finally {
+                stock.lock.unlock();
+            }
+        });
+    }
+
+    // Drop the lease of a book without returning it, after its quantity was set or the book deleted
+    public void discard(Long bookId) {
+        StripedStock stock = stocks.remove(bookId);
+        if (stock != null) {
+            stock.lock.lock();
+            try {
+                stock.retired = true;
+                stock.drain();
+            } finally {
+                stock.lock.unlock();
+            }
+        }
+    }
+
+    // Leased units of one book, spread over cells
+    private static final class StripedStock {
+
+        private final AtomicLong[] cells;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // Set under the lock once the stock left the map; reservers then start over
+        private boolean retired;
+
+        StripedStock(int stripes) {
+            cells = new AtomicLong[stripes];
+            for (int i = 0; i < stripes; i++) {
+                cells[i] = new AtomicLong();
+            }
+        }
+
+        // Take from the first cell (starting at a random one) that holds enough
+        boolean tryTake(int amount) {
+            int start = ThreadLocalRandom.current().nextInt(cells.length);
+            for (int i = 0; i < cells.length; i++) {
+                AtomicLong cell = cells[(start + i) % cells.length];
+                long units;
+                while ((units = cell.get()) >= amount) {
+                    if (cell.compareAndSet(units, units - amount)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        void put(long units) {
+            cells[ThreadLocalRandom.current().nextInt(cells.length)].addAndGet(units);
+        }
+
+        // Empty every cell, returns what they held
+        long drain() {
+            long units = 0;
+            for (AtomicLong cell : cells) {
+                units += cell.getAndSet(0);
+            }
+            return units;
+        }
+
+        // Spread units evenly over the cells
+        void fill(long units) {
+            long share = units / cells.length;
+            for (int i = 0; i < cells.length; i++) {
+                cells[i].addAndGet(i == 0 ? share + units % cells.length : share);
+            }
+        }
+    }
+}
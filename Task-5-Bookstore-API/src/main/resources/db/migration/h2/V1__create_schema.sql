@@ -0,0 +1,30 @@
+-- Baseline schema for Author and Book (H2)
+-- Sequences increment by 50 to match the pooled @SequenceGenerator allocationSize
+
+create sequence author_seq start with 1 increment by 50;
+create sequence book_seq start with 1 increment by 50;
+
+create table authors (
+    id bigint not null,
+    name varchar(255) not null,
+    biography varchar(1000),
+    email varchar(255),
+    constraint pk_authors primary key (id),
+    constraint uk_authors_email unique (email)
+);
+
+create table books (
+    id bigint not null,
+    title varchar(255) not null,
+    isbn varchar(255),
+    description varchar(255),
+    price numeric(10,2),
+    quantity integer,
+    published_date date,
+    genre varchar(255),
+    publisher varchar(255),
+    author_id bigint,
+    constraint pk_books primary key (id),
+    constraint uk_books_isbn unique (isbn),
+    constraint fk_books_author foreign key (author_id) references authors (id)
+);
@@ -0,0 +1,4 @@
+-- Optimistic locking / ETag versions for Author and Book
+
+alter table authors add column version bigint default 0 not null;
+alter table books add column version bigint default 0 not null;
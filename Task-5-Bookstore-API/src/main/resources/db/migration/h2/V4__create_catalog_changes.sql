@@ -0,0 +1,14 @@
+-- Transactional outbox of catalog changes (CatalogChangeOutbox), read by the change feed.
+-- The id is the feed offset: rows are inserted just before their transaction commits.
+
+create table catalog_changes (
+    id bigint generated by default as identity,
+    entity_type varchar(16) not null,
+    entity_id bigint not null,
+    change_type varchar(16) not null,
+    changed_at timestamp not null,
+    constraint pk_catalog_changes primary key (id)
+);
+
+-- Retention cleanup
+create index idx_catalog_changes_changed_at on catalog_changes (changed_at);
@@ -0,0 +1,16 @@
+-- (sortKey, id) indexes for keyset pagination (GET /api/books/scroll, /api/authors/scroll):
+-- a page is read in index order from the last seen row, id breaking ties between equal keys
+
+create index idx_books_quantity on books (quantity, id);
+create index idx_books_published_date on books (published_date, id);
+create index idx_books_genre on books (genre, id);
+create index idx_books_isbn on books (isbn, id);
+
+-- Replaces the single-column publisher index (findByPublisher uses the new one too)
+drop index idx_books_publisher;
+create index idx_books_publisher on books (publisher, id);
+
+-- Replaces the single-column name index (findAuthorByName, findBooksByAuthorName use the new one too)
+drop index idx_authors_name;
+create index idx_authors_name on authors (name, id);
+create index idx_authors_email on authors (email, id);
@@ -0,0 +1,5 @@
+-- Genre matches and title/genre order ignore case (GET /api/books/genre, /filter, /scroll), the same
+-- as the columnar filter index (BookFilterIndex). Other text columns (ISBN, email, ...) stay exact.
+
+alter table books alter column genre set data type varchar_ignorecase(255);
+alter table books alter column title set data type varchar_ignorecase(255);
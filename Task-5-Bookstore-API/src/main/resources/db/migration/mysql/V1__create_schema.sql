@@ -0,0 +1,38 @@
+-- Baseline schema for Author and Book (MySQL)
+-- MySQL has no sequences: Hibernate emulates them with one-row tables.
+-- next_val advances by 50 to match the pooled @SequenceGenerator allocationSize.
+
+create table author_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into author_seq values (1);
+
+create table book_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into book_seq values (1);
+
+create table authors (
+    id bigint not null,
+    name varchar(255) not null,
+    biography varchar(1000),
+    email varchar(255),
+    constraint pk_authors primary key (id),
+    constraint uk_authors_email unique (email)
+) engine=InnoDB;
+
+create table books (
+    id bigint not null,
+    title varchar(255) not null,
+    isbn varchar(255),
+    description varchar(255),
+    price decimal(10,2),
+    quantity integer,
+    published_date date,
+    genre varchar(255),
+    publisher varchar(255),
+    author_id bigint,
+    constraint pk_books primary key (id),
+    constraint uk_books_isbn unique (isbn),
+    constraint fk_books_author foreign key (author_id) references authors (id)
+) engine=InnoDB;
@@ -0,0 +1,19 @@
+-- Indexes for the BookRepository / AuthorRepository access paths
+
+-- findByGenre, filterBooks(genre [+ price range, sorted by price])
+create index idx_books_genre_price on books (genre, price, id);
+
+-- findByPriceBetween, findExpensiveBooks (ORDER BY price DESC), price sort and keyset paging
+create index idx_books_price on books (price, id);
+
+-- findByPublisher
+create index idx_books_publisher on books (publisher);
+
+-- findByAuthorId and the author join use the index that H2 and MySQL
+-- create for the fk_books_author foreign key (see V1)
+
+-- Title sort and keyset paging by title
+create index idx_books_title on books (title, id);
+
+-- findAuthorByName, findBooksByAuthorName
+create index idx_authors_name on authors (name);
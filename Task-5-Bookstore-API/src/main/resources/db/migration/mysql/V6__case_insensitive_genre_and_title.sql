@@ -0,0 +1,6 @@
+-- Genre matches and title/genre order ignore case (GET /api/books/genre, /filter, /scroll), the same
+-- as the columnar filter index (BookFilterIndex). Accent-sensitive, like the index, whatever the
+-- table's default collation is. Other text columns (ISBN, email, ...) keep the table collation.
+
+alter table books modify genre varchar(255) collate utf8mb4_0900_as_ci;
+alter table books modify title varchar(255) not null collate utf8mb4_0900_as_ci;
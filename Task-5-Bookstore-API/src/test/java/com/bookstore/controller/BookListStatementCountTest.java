@@ -0,0 +1,166 @@
+package com.bookstore.controller;
+
+import com.bookstore.config.SqlStatementMetricsInterceptor;
+import com.bookstore.dto.BookRequestDTO;
+import com.bookstore.entity.Author;
+import com.bookstore.service.AuthorService;
+import com.bookstore.service.BookService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Book List Statement Count Test
+ *
+ * Every list and page endpoint must issue the same number of SQL statements whether it returns
+ * 2 books of 2 authors or 40 books of 20 authors: authors are fetched with the books, never one
+ * query per row (N+1). Counted with SqlStatementCounter through the per-request metrics interceptor.
+ * The second-level cache is off, so it cannot hide lazy loads.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-count;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookListStatementCountTest {
+
+    private static final int AUTHORS = 20;
+    private static final int MANY = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    // Genre "Few": 2 books priced 10 and 11, of 2 authors.
+    // Genre "Many": 40 books priced 100..139, spread over 20 authors.
+    @BeforeAll
+    void seed() {
+        List<Long> authorIds = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            Author author = new Author();
+            author.setName("Author " + i);
+            author.setEmail("author" + i + "@bookstore.com");
+            authorIds.add(authorService.saveAuthor(author).getId());
+        }
+        List<BookRequestDTO> books = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            books.add(book("Few " + i, "few-" + i, "Few", 10 + i, authorIds.get(i)));
+        }
+        for (int i = 0; i < MANY; i++) {
+            books.add(book("Many " + i, "many-" + i, "Many", 100 + i, authorIds.get(i % AUTHORS)));
+        }
+        assertThat(bookService.bulkCreateBooks(books.iterator()).getCreated()).isEqualTo(books.size());
+    }
+
+    @Test
+    void booksByGenre() throws Exception {
+        assertSameStatements("/api/books/genre/Few", 2, "/api/books/genre/Many", MANY, "$.length()");
+    }
+
+    @Test
+    void titleSearch() throws Exception {
+        assertSameStatements("/api/books/search?title=few", 2, "/api/books/search?title=many", MANY, "$.length()");
+    }
+
+    @Test
+    void priceRange() throws Exception {
+        assertSameStatements("/api/books/price?minPrice=10&maxPrice=11", 2,
+                "/api/books/price?minPrice=100&maxPrice=200", MANY, "$.length()");
+    }
+
+    @Test
+    void expensiveBooks() throws Exception {
+        assertSameStatements("/api/books/expensive?minPrice=137", 2,
+                "/api/books/expensive?minPrice=50", MANY, "$.length()");
+    }
+
+    @Test
+    void filterWithCount() throws Exception {
+        assertSameStatements("/api/books/filter?genre=Few&size=100", 2,
+                "/api/books/filter?genre=Many&size=100", MANY, "$.content.length()");
+    }
+
+    @Test
+    void filterWithoutCount() throws Exception {
+        assertSameStatements("/api/books/filter?genre=Few&size=100&count=none", 2,
+                "/api/books/filter?genre=Many&size=100&count=none", MANY, "$.content.length()");
+    }
+
+    @Test
+    void paginated() throws Exception {
+        assertSameStatements("/api/books/paginated?size=2", 2,
+                "/api/books/paginated?size=" + MANY, MANY, "$.content.length()");
+    }
+
+    @Test
+    void scroll() throws Exception {
+        assertSameStatements("/api/books/scroll?size=2", 2,
+                "/api/books/scroll?size=" + MANY, MANY, "$.content.length()");
+    }
+
+    @Test
+    void allBooks() throws Exception {
+        // One statement for the books and their authors, whatever the catalog size
+        assertThat(statements("/api/books", MANY + 2, "$.length()")).isEqualTo(1);
+    }
+
+    @Test
+    void authorListing() throws Exception {
+        assertSameStatements("/api/authors/paginated?size=2", 2,
+                "/api/authors/paginated?size=" + AUTHORS, AUTHORS, "$.content.length()");
+    }
+
+    // Helper: Both requests return the expected number of rows with the same number of statements
+    private void assertSameStatements(String few, int fewRows, String many, int manyRows, String rowsPath)
+            throws Exception {
+        int fewStatements = statements(few, fewRows, rowsPath);
+        int manyStatements = statements(many, manyRows, rowsPath);
+        assertThat(manyStatements)
+                .as("statements of %s (%d rows) vs %s (%d rows)", many, manyRows, few, fewRows)
+                .isEqualTo(fewStatements);
+    }
+
+    // Helper: SQL statements issued by one GET request
+    private int statements(String uri, int rows, String rowsPath) throws Exception {
+        MvcResult result = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(rowsPath).value(rows))
+                .andReturn();
+        return ((AtomicInteger) result.getRequest()
+                .getAttribute(SqlStatementMetricsInterceptor.COUNTER_ATTRIBUTE)).get();
+    }
+
+    private static BookRequestDTO book(String title, String isbn, String genre, int price, Long authorId) {
+        BookRequestDTO dto = new BookRequestDTO();
+        dto.setTitle(title);
+        dto.setIsbn(isbn);
+        dto.setPrice(BigDecimal.valueOf(price));
+        dto.setQuantity(10);
+        dto.setGenre(genre);
+        dto.setPublisher("Publisher");
+        dto.setAuthorId(authorId);
+        return dto;
+    }
+}
@@ -0,0 +1,214 @@
+package com.bookstore.repository;
+
+import com.bookstore.service.BookService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repository Query Plan Test
+ *
+ * Seeds 20,000 books of 200 authors and runs every selective finder. Each SELECT is explained
+ * by H2 (EXPLAIN with the same parameters, on the same connection) before it executes; the test
+ * fails when a plan reads books or authors with a full table scan instead of an index.
+ * findByTitleContainingIgnoreCase / findByNameContainingIgnoreCase are left out: a contains
+ * LIKE cannot use a B-tree index (title search goes through BookSearchIndex instead).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final int AUTHORS = 200;
+    private static final int BOOKS = 20_000;
+
+    // Plans of the SELECTs run since the last clear
+    private static final List<String> PLANS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO authors (id, name, email, version) "
+                + "SELECT x, 'Author ' || x, 'author' || x || '@bookstore.com', 0 FROM SYSTEM_RANGE(1, ?)", AUTHORS);
+        jdbcTemplate.update("INSERT INTO books (id, title, isbn, description, price, quantity, published_date, "
+                + "genre, publisher, author_id, version) "
+                + "SELECT x, 'Book ' || x, 'isbn-' || x, 'Description ' || x, 100 + MOD(x * 37, 900), MOD(x, 50), "
+                + "DATEADD('DAY', MOD(x, 5000), DATE '2000-01-01'), 'Genre ' || MOD(x, 20), "
+                + "'Publisher ' || MOD(x, 50), MOD(x, ?) + 1, 0 FROM SYSTEM_RANGE(1, ?)", AUTHORS, BOOKS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void bookLookups() {
+        assertIndexed("findById", () -> bookRepository.findById(42L));
+        assertIndexed("findAllById", () -> bookRepository.findAllById(List.of(1L, 2L, 3L)));
+        assertIndexed("findByIsbn", () -> bookRepository.findByIsbn("isbn-42"));
+        assertIndexed("existsByIsbn", () -> bookRepository.existsByIsbn("isbn-42"));
+        assertIndexed("findVersionById", () -> bookRepository.findVersionById(42L));
+        assertIndexed("findVersionByIsbn", () -> bookRepository.findVersionByIsbn("isbn-42"));
+        assertIndexed("findStoredKeysById", () -> bookRepository.findStoredKeysById(42L));
+        assertIndexed("findStockById", () -> bookRepository.findStockById(42L));
+        assertIndexed("findExistingIsbns", () -> bookRepository.findExistingIsbns(List.of("isbn-1", "isbn-2")));
+    }
+
+    @Test
+    void bookFinders() {
+        assertIndexed("findByGenre", () -> bookRepository.findByGenre("Genre 3"));
+        assertIndexed("findByPublisher", () -> bookRepository.findByPublisher("Publisher 7"));
+        assertIndexed("findByAuthorId", () -> bookRepository.findByAuthorId(5L));
+        assertIndexed("findByPriceBetween", () -> bookRepository.findByPriceBetween(
+                new BigDecimal("500"), new BigDecimal("505")));
+        assertIndexed("findExpensiveBooks", () -> bookRepository.findExpensiveBooks(new BigDecimal("995")));
+        assertIndexed("findBooksByAuthorName", () -> bookRepository.findBooksByAuthorName("Author 5"));
+    }
+
+    @Test
+    void authorBookFinders() {
+        assertIndexed("findIdsByAuthorId", () -> bookRepository.findIdsByAuthorId(5L, PageRequest.of(0, 10)));
+        assertIndexed("countByAuthorId", () -> bookRepository.countByAuthorId(5L));
+        assertIndexed("findSummariesByAuthorId", () -> bookRepository.findSummariesByAuthorId(
+                5L, PageRequest.of(0, 10, Sort.by("id"))));
+        assertIndexed("findFirstBooksByAuthorIds", () -> bookRepository.findFirstBooksByAuthorIds(
+                List.of(1L, 2L, 3L), 5));
+    }
+
+    @Test
+    void filterByGenreAndPrice() {
+        assertIndexed("filterBooks(genre, price)", () -> bookService.filterBooks(null, "Genre 3", null,
+                new BigDecimal("500"), new BigDecimal("600"), PageRequest.of(0, 10, Sort.by("price"))));
+        assertIndexed("filterBooks(price)", () -> bookService.filterBooks(null, null, null,
+                new BigDecimal("500"), new BigDecimal("505"), PageRequest.of(0, 10, Sort.by("price"))));
+    }
+
+    @Test
+    void authorFinders() {
+        assertIndexed("findByEmail", () -> authorRepository.findByEmail("author5@bookstore.com"));
+        assertIndexed("existsByEmail", () -> authorRepository.existsByEmail("author5@bookstore.com"));
+        assertIndexed("findAuthorByName", () -> authorRepository.findAuthorByName("Author 5"));
+        assertIndexed("findVersionById", () -> authorRepository.findVersionById(5L));
+    }
+
+    // Helper: Run the finder and check the plan of every SELECT it issued
+    private void assertIndexed(String finder, Runnable call) {
+        PLANS.clear();
+        call.run();
+        List<String> plans = new ArrayList<>(PLANS);
+        assertThat(plans).as("%s issued no SELECT", finder).isNotEmpty();
+        for (String plan : plans) {
+            assertThat(plan).as("%s plan", finder)
+                    .doesNotContain("PUBLIC.BOOKS.tableScan")
+                    .doesNotContain("PUBLIC.AUTHORS.tableScan");
+        }
+    }
+
+    @TestConfiguration
+    static class ExplainConfig {
+
+        // Wrap the DataSource so every SELECT is explained before it runs
+        @Bean
+        static BeanPostProcessor explainingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return proxy(DataSource.class, dataSource, (method, args) -> {
+                            Object result = method.invoke(dataSource, args);
+                            return result instanceof Connection connection ? explaining(connection) : result;
+                        });
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private static Connection explaining(Connection connection) {
+            return proxy(Connection.class, connection, (method, args) -> {
+                Object result = method.invoke(connection, args);
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                    return explaining(connection, statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        // Records the parameter setters, and runs EXPLAIN with them when the SELECT executes
+        private static PreparedStatement explaining(Connection connection, PreparedStatement statement, String sql) {
+            List<Object[]> setters = new ArrayList<>();
+            return proxy(PreparedStatement.class, statement, (method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    setters.add(new Object[]{method, args});
+                } else if (method.getName().equals("clearParameters")) {
+                    setters.clear();
+                } else if (method.getName().equals("executeQuery")
+                        && sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                    try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                        for (Object[] setter : setters) {
+                            ((Method) setter[0]).invoke(explain, (Object[]) setter[1]);
+                        }
+                        try (ResultSet plan = explain.executeQuery()) {
+                            plan.next();
+                            PLANS.add(plan.getString(1));
+                        }
+                    }
+                }
+                return method.invoke(statement, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Call call) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                try {
+                    return call.invoke(method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private interface Call {
+            Object invoke(Method method, Object[] args) throws InvocationTargetException, IllegalAccessException,
+                    SQLException;
+        }
+    }
+}
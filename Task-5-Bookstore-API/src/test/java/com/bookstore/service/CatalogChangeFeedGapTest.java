@@ -0,0 +1,128 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.CatalogChangeDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Catalog Change Feed Gap Test
+ *
+ * A transaction takes an offset and commits after a later one. The relay has to stop at the
+ * gap, skip it once gap-timeout passed, and move the change to the end of the log when it
+ * finally commits, where a consumer resuming from its last offset still receives it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-feed-gap;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "bookstore.changes.poll-interval=100ms",
+        "bookstore.changes.gap-timeout=300ms"})
+class CatalogChangeFeedGapTest {
+
+    private static final long WAIT_MILLIS = 10_000;
+
+    @Autowired
+    private CatalogChangeFeed catalogChangeFeed;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lateCommitIsSkippedThenMovedToTheEnd() throws Exception {
+        long start = catalogChangeFeed.getHead();
+        long late;
+        long early;
+        try (Connection slow = dataSource.getConnection()) {
+            slow.setAutoCommit(false);
+            late = insertChange(slow, 1001L);
+            early = insertChange(null, 1002L);
+            assertThat(early).isGreaterThan(late);
+
+            // The relay waits for the missing offset, then skips it
+            await(() -> catalogChangeFeed.getHead() >= early);
+            assertThat(offsetsOf(catalogChangeFeed.getChanges(start, 10))).contains(early).doesNotContain(late);
+
+            slow.commit();
+        }
+
+        // The late change shows up after the head it was skipped at, at a new offset
+        await(() -> entityIdsOf(catalogChangeFeed.getChanges(early, 10)).contains(1001L));
+        List<CatalogChangeDTO> resumed = catalogChangeFeed.getChanges(early, 10);
+        assertThat(resumed.get(0).getEntityId()).isEqualTo(1001L);
+        assertThat(resumed.get(0).getOffset()).isGreaterThan(early);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM catalog_changes WHERE id = ?", Integer.class, late))
+                .isZero();
+    }
+
+    @Test
+    void rolledBackOffsetDoesNotHoldTheHead() throws Exception {
+        long rolledBack;
+        try (Connection slow = dataSource.getConnection()) {
+            slow.setAutoCommit(false);
+            rolledBack = insertChange(slow, 2001L);
+            slow.rollback();
+        }
+        long next = insertChange(null, 2002L);
+        assertThat(next).isGreaterThan(rolledBack);
+
+        await(() -> catalogChangeFeed.getHead() >= next);
+        assertThat(entityIdsOf(catalogChangeFeed.getChanges(rolledBack - 1, 10))).containsExactly(2002L);
+    }
+
+    // Helper: Insert a book change on the given connection (a new autocommit one when null); returns its offset
+    private long insertChange(Connection connection, long entityId) throws Exception {
+        if (connection == null) {
+            try (Connection autoCommit = dataSource.getConnection()) {
+                return insertChange(autoCommit, entityId);
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO catalog_changes (entity_type, entity_id, change_type, changed_at) VALUES (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            statement.setString(1, CatalogChangeDTO.EntityType.BOOK.name());
+            statement.setLong(2, entityId);
+            statement.setString(3, CatalogChangeDTO.ChangeType.UPDATED.name());
+            statement.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    // Helper: Wait until the condition holds (the relay polls every 100ms)
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("waited for the change feed").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static List<Long> offsetsOf(List<CatalogChangeDTO> changes) {
+        return changes.stream().map(CatalogChangeDTO::getOffset).toList();
+    }
+
+    private static List<Long> entityIdsOf(List<CatalogChangeDTO> changes) {
+        return changes.stream().map(CatalogChangeDTO::getEntityId).toList();
+    }
+}
@@ -0,0 +1,193 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Stock Reservation Concurrency Test
+ *
+ * Many threads reserve and release the stock of one book at the same time, both through
+ * the conditional UPDATE (BookStockService, striped front disabled) and through the
+ * in-memory leases of StripedStockCounter. More units than the book holds are requested,
+ * so the tests check that nothing is oversold and that, once the leases are flushed,
+ * the stored quantity is the initial one minus what is still reserved. The catalog stats,
+ * updated from the stock events of concurrent commits, must end up at the stored stock.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-concurrency;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"})
+class StockReservationConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS = 200;
+    private static final int STOCK = 300;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookStockService bookStockService;
+
+    @Autowired
+    private BookCatalogStats bookCatalogStats;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void conditionalUpdateNeverOversells() throws Exception {
+        Long id = createBook("direct-oversell");
+        AtomicInteger reserved = new AtomicInteger();
+        runConcurrently(() -> {
+            if (bookStockService.reserve(id, 1)) {
+                reserved.incrementAndGet();
+            }
+        });
+        assertThat(reserved.get()).isEqualTo(STOCK);
+        assertThat(quantityOf(id)).isZero();
+    }
+
+    @Test
+    void conditionalUpdateKeepsStockWithReleases() throws Exception {
+        Long id = createBook("direct-release");
+        AtomicInteger held = new AtomicInteger();
+        runConcurrently(() -> reserveOrRelease(id, held, bookStockService::reserve, bookStockService::release));
+        assertThat(held.get()).isBetween(0, STOCK);
+        assertThat(quantityOf(id)).isEqualTo(STOCK - held.get());
+        assertStatsMatchStoredStock();
+    }
+
+    @Test
+    void stripedLeasesNeverOversell() throws Exception {
+        Long id = createBook("striped-oversell");
+        StripedStockCounter counter = new StripedStockCounter(bookService, 7, 4);
+        AtomicInteger reserved = new AtomicInteger();
+        runConcurrently(() -> {
+            int amount = 1 + ThreadLocalRandom.current().nextInt(3);
+            if (counter.reserve(id, amount)) {
+                reserved.addAndGet(amount);
+            }
+        });
+        counter.flush();
+        assertThat(reserved.get()).isLessThanOrEqualTo(STOCK);
+        assertThat(quantityOf(id)).isEqualTo(STOCK - reserved.get());
+    }
+
+    @Test
+    void stripedLeasesKeepStockWithReleases() throws Exception {
+        Long id = createBook("striped-release");
+        StripedStockCounter counter = new StripedStockCounter(bookService, 7, 4);
+        AtomicInteger held = new AtomicInteger();
+        runConcurrently(() -> reserveOrRelease(id, held, counter::reserve,
+                (bookId, amount) -> counter.release(bookId, amount) || bookService.releaseStock(bookId, amount)));
+        counter.flush();
+        assertThat(held.get()).isBetween(0, STOCK);
+        assertThat(quantityOf(id)).isEqualTo(STOCK - held.get());
+        assertStatsMatchStoredStock();
+    }
+
+    @Test
+    void releaseAfterDiscardGoesToTheDatabase() {
+        Long id = createBook("striped-discard");
+        StripedStockCounter counter = new StripedStockCounter(bookService, 7, 4);
+        assertThat(counter.reserve(id, 2)).isTrue();
+        counter.discard(id);
+        assertThat(counter.release(id, 2)).isFalse();
+    }
+
+    @Test
+    void releaseAboveTheCapIsRejected() {
+        Long id = createBook("release-cap");
+        assertThatThrownBy(() -> bookStockService.release(id, BookStockService.MAX_QUANTITY + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(quantityOf(id)).isEqualTo(STOCK);
+    }
+
+    // Stock operation of the service or the striped counter
+    private interface StockOperation {
+        boolean apply(Long bookId, int amount);
+    }
+
+    // Helper: Reserve 1-3 units, or give back some of the units held by the test so far
+    private static void reserveOrRelease(Long id, AtomicInteger held, StockOperation reserve, StockOperation release) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            int amount = 1 + random.nextInt(3);
+            if (reserve.apply(id, amount)) {
+                held.addAndGet(amount);
+            }
+            return;
+        }
+        int current;
+        int amount;
+        do {
+            current = held.get();
+            if (current == 0) {
+                return;
+            }
+            amount = Math.min(current, 1 + random.nextInt(3));
+        } while (!held.compareAndSet(current, current - amount));
+        assertThat(release.apply(id, amount)).isTrue();
+    }
+
+    // Helper: Run the operation ATTEMPTS times on each of THREADS threads, all starting together
+    private static void runConcurrently(Runnable operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<Void> worker = () -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS; i++) {
+                        operation.run();
+                    }
+                    return null;
+                };
+                futures.add(executor.submit(worker));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createBook(String isbn) {
+        Book book = new Book();
+        book.setTitle("Stock " + isbn);
+        book.setIsbn(isbn);
+        book.setQuantity(STOCK);
+        return bookService.saveBook(book, null).getId();
+    }
+
+    private void assertStatsMatchStoredStock() {
+        Long stored = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM books", Long.class);
+        assertThat(bookCatalogStats.snapshot().getTotalStock()).isEqualTo(stored);
+    }
+
+    private int quantityOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM books WHERE id = ?", Integer.class, id);
+    }
+}